@@ -0,0 +1,109 @@
+package com.unibite.project.benchmarks;
+
+import com.unibite.project.ProjectApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Boots the application against a throwaway SQLite file seeded with a realistic
+// mix of data. The first boot only creates the schema; the data is bulk-inserted
+// and the application is booted again so every in-memory index starts from it.
+final class BenchmarkDatabase {
+
+    static final int RESTAURANTS = 50;
+    static final int HOT_LISTINGS = 100;
+    static final int CLAIMS_PER_LISTING = 4;
+
+    private BenchmarkDatabase() {}
+
+    static ConfigurableApplicationContext start(int listings) {
+        Path file;
+        try {
+            file = Files.createTempFile("unibite-bench-", ".db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        file.toFile().deleteOnExit();
+        String url = "jdbc:sqlite:" + file.toAbsolutePath();
+
+        try (ConfigurableApplicationContext schema = boot(url)) {
+            seed(schema.getBean(JdbcTemplate.class), listings);
+        }
+        return boot(url);
+    }
+
+    static int students(int listings) {
+        return Math.max(200, listings / 5);
+    }
+
+    static long hotListingId(int listings, SplittableRandom random) {
+        return listings - HOT_LISTINGS + 1 + random.nextInt(HOT_LISTINGS);
+    }
+
+    static long studentId(int listings, SplittableRandom random) {
+        return RESTAURANTS + 1 + random.nextInt(students(listings));
+    }
+
+    private static ConfigurableApplicationContext boot(String url) {
+        return new SpringApplicationBuilder(ProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                // as arguments, so they win over application.properties
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+
+    // Ids are explicit: restaurants first, then students; the last HOT_LISTINGS
+    // listings are open with plenty of stock, everything older has expired.
+    private static void seed(JdbcTemplate jdbc, int listings) {
+        SplittableRandom random = new SplittableRandom(42);
+        long now = Instant.now().toEpochMilli();
+        long day = Duration.ofDays(1).toMillis();
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= RESTAURANTS + students(listings); i++) {
+            boolean restaurant = i <= RESTAURANTS;
+            users.add(new Object[]{i, now, "user" + i + "@bench.ca", "secret1",
+                    restaurant ? "RESTAURANT" : "STUDENT", "User " + i, "u_bench-" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, created_at, email, password_hash, role, display_name, qr_token) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= listings; i++) {
+            boolean hot = i > listings - HOT_LISTINGS;
+            long createdAt = now - (long) (listings - i) * 60_000;
+            rows.add(new Object[]{i, 1 + random.nextInt(RESTAURANTS), "Listing " + i, "Surplus tray " + i,
+                    hot ? 1_000_000 : 20, hot ? 1_000_000 : 0, hot ? 1_000 : 2,
+                    "Counter " + random.nextInt(10), hot ? now + day : createdAt + 3_600_000, createdAt});
+        }
+        jdbc.batchUpdate("INSERT INTO food_listings (id, restaurant_id, title, description, total_quantity, "
+                + "remaining_quantity, per_person_limit, pickup_location, available_until, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        String[] statuses = {"REDEEMED", "REDEEMED", "REDEEMED", "REDEEMED", "REDEEMED", "REDEEMED",
+                "CANCELED", "CANCELED", "CLAIMED", "CLAIMED"};
+        for (int i = 1; i <= listings * CLAIMS_PER_LISTING; i++) {
+            long listingId = 1 + random.nextInt(listings);
+            long claimedAt = now - (long) (listings - listingId) * 60_000 + random.nextInt(3_600_000);
+            String status = statuses[random.nextInt(statuses.length)];
+            rows.add(new Object[]{i, listingId, studentId(listings, random), 1 + random.nextInt(2), status,
+                    "c_bench-" + i, claimedAt, "REDEEMED".equals(status) ? claimedAt + 600_000 : null});
+        }
+        jdbc.batchUpdate("INSERT INTO claims (id, listing_id, student_id, quantity, status, qr_token, claimed_at, "
+                + "redeemed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,48 @@
+package com.unibite.project.benchmarks;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the selected benchmarks once per thread count and writes every result to
+// a single JSON file, so two runs can be compared with any JMH result viewer.
+//
+//   -Djmh.include=ClaimServiceBenchmark   benchmark regex (default: all)
+//   -Djmh.threads=1,4,16                  thread counts to run each benchmark with
+//   -Djmh.params=listings=1000            overrides a @Param (name=v1|v2)
+//   -Djmh.result=target/jmh-result.json
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("jmh.include", ".*Benchmark.*");
+        String result = System.getProperty("jmh.result", "target/jmh-result.json");
+        String params = System.getProperty("jmh.params", "");
+
+        List<RunResult> results = new ArrayList<>();
+        for (String threads : System.getProperty("jmh.threads", "1,4,16").split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .shouldFailOnError(true);
+            for (String param : params.split(",")) {
+                if (param.isBlank()) continue;
+                String[] parts = param.split("=", 2);
+                options.param(parts[0].trim(), parts[1].trim().split("\\|"));
+            }
+            results.addAll(new Runner(options.build()).run());
+        }
+
+        File out = new File(result);
+        if (out.getParentFile() != null) out.getParentFile().mkdirs();
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, out.getPath()).writeOut(results);
+        System.out.println("Benchmark results written to " + out.getAbsolutePath());
+    }
+}
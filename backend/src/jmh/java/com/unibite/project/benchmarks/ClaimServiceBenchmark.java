@@ -0,0 +1,121 @@
+package com.unibite.project.benchmarks;
+
+import com.unibite.project.claims.ClaimService;
+import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.claims.dto.CreateClaimRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Redeem and cancel consume one open claim per call, so they run as fixed-size
+// batches (SingleShotTime) over claims prepared before each iteration; the
+// score is the time for BATCH operations per thread.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ClaimServiceBenchmark {
+
+    static final int BATCH = 500;
+
+    @Param({"1000", "10000"})
+    public int listings;
+
+    private ConfigurableApplicationContext context;
+    private ClaimService claimService;
+
+    private final Queue<ClaimResponse> openClaims = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start(listings);
+        claimService = context.getBean(ClaimService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Claims are created concurrently so the group-commit writer fills whole batches
+    @Setup(Level.Iteration)
+    public void prepareOpenClaims(BenchmarkParams params) throws InterruptedException, ExecutionException {
+        openClaims.clear();
+        if (params.getBenchmark().endsWith("createClaim")) return;
+
+        int needed = params.getThreads() * BATCH;
+        List<Callable<ClaimResponse>> tasks = new ArrayList<>(needed);
+        SplittableRandom random = new SplittableRandom();
+        for (int i = 0; i < needed; i++) {
+            CreateClaimRequest req = request(random.split());
+            tasks.add(() -> claimService.createClaim(req));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        try {
+            for (Future<ClaimResponse> future : pool.invokeAll(tasks)) {
+                openClaims.add(future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public ClaimResponse createClaim() {
+        return claimService.createClaim(request(new SplittableRandom(ThreadLocalRandom.current().nextLong())));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, batchSize = BATCH)
+    @Measurement(iterations = 5, batchSize = BATCH)
+    public Object redeemByToken() {
+        return claimService.redeemByToken(openClaims.remove().qrToken);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, batchSize = BATCH)
+    @Measurement(iterations = 5, batchSize = BATCH)
+    public Object cancelClaim() {
+        return claimService.cancelClaim(openClaims.remove().id);
+    }
+
+    private CreateClaimRequest request(SplittableRandom random) {
+        CreateClaimRequest req = new CreateClaimRequest();
+        req.listingId = BenchmarkDatabase.hotListingId(listings, random);
+        req.studentId = BenchmarkDatabase.studentId(listings, random);
+        req.quantity = 1;
+        return req;
+    }
+}
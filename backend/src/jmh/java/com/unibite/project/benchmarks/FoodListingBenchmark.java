@@ -0,0 +1,57 @@
+package com.unibite.project.benchmarks;
+
+import com.unibite.project.listings.FoodListing;
+import com.unibite.project.listings.FoodListingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FoodListingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int listings;
+
+    private ConfigurableApplicationContext context;
+    private FoodListingService listingService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start(listings);
+        listingService = context.getBean(FoodListingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FoodListing> getAll() {
+        return listingService.getAll();
+    }
+
+    @Benchmark
+    public List<FoodListing> getActive() {
+        return listingService.getActive();
+    }
+}
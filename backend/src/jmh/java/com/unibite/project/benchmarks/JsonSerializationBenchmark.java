@@ -0,0 +1,76 @@
+package com.unibite.project.benchmarks;
+
+import com.unibite.project.claims.Claim;
+import com.unibite.project.claims.ClaimStatus;
+import com.unibite.project.listings.FoodListing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response bodies as the controllers return them; no database involved.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int items;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private List<Claim> claims;
+    private List<FoodListing> listings;
+
+    @Setup
+    public void prepare() {
+        claims = new ArrayList<>(items);
+        listings = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Claim claim = new Claim();
+            claim.setListingId((long) i);
+            claim.setStudentId(1_000L + i);
+            claim.setQuantity(1);
+            claim.setStatus(i % 3 == 0 ? ClaimStatus.REDEEMED : ClaimStatus.CLAIMED);
+            claim.setQrToken("c_5b0e6c1e-8d1f-4a52-9d0b-" + String.format("%012d", i));
+            if (claim.getStatus() == ClaimStatus.REDEEMED) claim.setRedeemedAt(Instant.now());
+            claims.add(claim);
+
+            FoodListing listing = new FoodListing();
+            listing.setRestaurantId(1L + i % 50);
+            listing.setTitle("Veggie wraps " + i);
+            listing.setDescription("Leftover catering wraps, mixed fillings");
+            listing.setTotalQuantity(24);
+            listing.setRemainingQuantity(24 - i % 24);
+            listing.setPerPersonLimit(2);
+            listing.setPickupLocation("University Centre food court");
+            listing.setAvailableUntil(Instant.now().plusSeconds(3_600));
+            listings.add(listing);
+        }
+    }
+
+    @Benchmark
+    public byte[] claims() {
+        return mapper.writeValueAsBytes(claims);
+    }
+
+    @Benchmark
+    public byte[] listings() {
+        return mapper.writeValueAsBytes(listings);
+    }
+}
@@ -0,0 +1,250 @@
+package com.unibite.project.loadtest;
+
+import com.unibite.project.ProjectApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Replays a flash drop end to end over HTTP: one listing goes up, every student
+// tries to claim it at a fixed arrival rate (open model: requests are fired on
+// schedule whether or not earlier ones have answered), and restaurant scanners
+// redeem the resulting QR codes at their own rate. Exits non-zero when an
+// invariant is broken.
+//
+//   -Dloadtest.students=2000       students registering and claiming once each
+//   -Dloadtest.quantity=500        totalQuantity of the dropped listing
+//   -Dloadtest.per-person-limit=1  claim quantity (and listing limit)
+//   -Dloadtest.claim-rate=1000     claim arrivals per second
+//   -Dloadtest.redeem-rate=100     redeem scans per second
+//   -Dloadtest.timeout-ms=10000    per-request timeout
+//   -Dloadtest.output=target/loadtest   where .hgrm percentile files go
+public class FlashDropLoadTest {
+
+    private static final int SEED_CONCURRENCY = 16;
+    private static final int DOUBLE_REDEEM_PROBES = 20;
+
+    private final int students = Integer.getInteger("loadtest.students", 2000);
+    private final int quantity = Integer.getInteger("loadtest.quantity", 500);
+    private final int perPersonLimit = Integer.getInteger("loadtest.per-person-limit", 1);
+    private final int claimRate = Integer.getInteger("loadtest.claim-rate", 1000);
+    private final int redeemRate = Integer.getInteger("loadtest.redeem-rate", 100);
+    private final Duration timeout = Duration.ofMillis(Long.getLong("loadtest.timeout-ms", 10_000));
+    private final Path output = Path.of(System.getProperty("loadtest.output", "target/loadtest"));
+
+    private LoadClient client;
+    private final List<String> violations = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int exitCode = new FlashDropLoadTest().run();
+        System.exit(exitCode);
+    }
+
+    int run() throws Exception {
+        Path database = Files.createTempFile("unibite-loadtest-", ".db");
+        database.toFile().deleteOnExit();
+
+        try (ConfigurableApplicationContext app = boot(database)) {
+            client = new LoadClient("http://localhost:" + app.getEnvironment().getProperty("local.server.port"), timeout);
+
+            System.out.printf("Seeding %d students and one restaurant...%n", students);
+            Account restaurant = register("restaurant@loadtest.ca", "RESTAURANT");
+            String restaurantToken = restaurant.sessionToken();
+            long restaurantId = restaurant.userId();
+            List<Account> accounts = seedStudents();
+
+            long listingId = createListing(restaurantId, restaurantToken);
+            System.out.printf("Dropping listing %d (%d portions) at %d claims/s, redeeming at %d/s%n",
+                    listingId, quantity, claimRate, redeemRate);
+
+            Queue<String> claimedTokens = new ConcurrentLinkedQueue<>();
+            AtomicLong claimedQuantity = new AtomicLong();
+            AtomicInteger redeemed = new AtomicInteger();
+
+            CompletableFuture<Void> claims = claimPhase(accounts, listingId, claimedTokens, claimedQuantity);
+            Queue<String> redeemedTokens = new ConcurrentLinkedQueue<>();
+            redeemPhase(restaurantToken, claims, claimedTokens, redeemedTokens, redeemed);
+
+            System.out.println();
+            client.report(System.out, output);
+            System.out.println();
+
+            checkInvariants(listingId, restaurantId, restaurantToken, claimedQuantity.get(), redeemed.get(), redeemedTokens);
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("All invariants held.");
+            return 0;
+        }
+        violations.forEach(violation -> System.out.println("INVARIANT BROKEN: " + violation));
+        return 1;
+    }
+
+    private record Account(long userId, String sessionToken) {}
+
+    private ConfigurableApplicationContext boot(Path database) {
+        // Arguments win over application.properties. The low BCrypt strength only
+        // speeds up seeding; the scenario itself never hashes.
+        return new SpringApplicationBuilder(ProjectApplication.class).run(
+                "--spring.datasource.url=jdbc:sqlite:" + database.toAbsolutePath(),
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--unibite.auth.bcrypt.strength=4",
+                "--unibite.ratelimit.enabled=false");
+    }
+
+    private List<Account> seedStudents() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(SEED_CONCURRENCY);
+        try {
+            List<CompletableFuture<Account>> futures = new ArrayList<>();
+            for (int i = 0; i < students; i++) {
+                String email = "student" + i + "@loadtest.ca";
+                futures.add(CompletableFuture.supplyAsync(() -> register(email, "STUDENT"), pool));
+            }
+            List<Account> accounts = new ArrayList<>();
+            for (CompletableFuture<Account> future : futures) accounts.add(future.get());
+            return accounts;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Account register(String email, String role) {
+        LoadClient.Result registered = client.call("POST", "/api/auth/register",
+                Map.of("email", email, "password", "secret1", "role", role), null);
+        require(registered, "register " + email);
+
+        LoadClient.Result login = client.call("POST", "/api/auth/login",
+                Map.of("email", email, "password", "secret1"), null);
+        require(login, "login " + email);
+        return new Account(login.body().get("userId").asLong(), login.body().get("sessionToken").asText());
+    }
+
+    private long createListing(long restaurantId, String token) {
+        LoadClient.Result listing = client.call("POST", "/api/listings", Map.of(
+                "restaurantId", restaurantId,
+                "title", "Flash drop",
+                "totalQuantity", quantity,
+                "perPersonLimit", perPersonLimit,
+                "availableUntil", Instant.now().plus(Duration.ofHours(1)).toString()), token);
+        require(listing, "create listing");
+        return listing.body().get("id").asLong();
+    }
+
+    private CompletableFuture<Void> claimPhase(List<Account> accounts, long listingId,
+                                               Queue<String> claimedTokens, AtomicLong claimedQuantity) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / claimRate;
+        long start = System.nanoTime();
+        List<CompletableFuture<LoadClient.Result>> inFlight = new ArrayList<>(accounts.size());
+
+        for (int i = 0; i < accounts.size(); i++) {
+            long scheduled = start + i * interval;
+            sleepUntil(scheduled);
+            Account account = accounts.get(i);
+            inFlight.add(client.timed("claim", scheduled, "POST", "/api/claims",
+                    Map.of("listingId", listingId, "studentId", account.userId(), "quantity", perPersonLimit),
+                    account.sessionToken()).whenComplete((result, error) -> {
+                        if (result != null && result.ok()) {
+                            claimedQuantity.addAndGet(result.body().get("quantity").asLong());
+                            claimedTokens.add(result.body().get("qrToken").asText());
+                        }
+                    }));
+        }
+        return CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new));
+    }
+
+    // Scans run on their own schedule; a tick with nothing to scan is skipped
+    private void redeemPhase(String token, CompletableFuture<Void> claims, Queue<String> claimedTokens,
+                             Queue<String> redeemedTokens, AtomicInteger redeemed) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / redeemRate;
+        List<CompletableFuture<LoadClient.Result>> inFlight = new ArrayList<>();
+        long scheduled = System.nanoTime();
+
+        while (!(claims.isDone() && claimedTokens.isEmpty())) {
+            sleepUntil(scheduled);
+            String qrToken = claimedTokens.poll();
+            if (qrToken != null) {
+                inFlight.add(client.timed("redeem", scheduled, "POST", "/api/claims/redeem?qrToken=" + qrToken,
+                        null, token).whenComplete((result, error) -> {
+                            if (result != null && result.ok()) {
+                                redeemed.incrementAndGet();
+                                redeemedTokens.add(qrToken);
+                            }
+                        }));
+            }
+            scheduled += interval;
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private void checkInvariants(long listingId, long restaurantId, String token,
+                                 long claimedQuantity, int redeemed, Queue<String> redeemedTokens) {
+        check(claimedQuantity <= quantity,
+                "claimed %d portions of a listing with totalQuantity %d", claimedQuantity, quantity);
+
+        JsonNode listing = null;
+        for (JsonNode candidate : client.call("GET", "/api/listings/restaurant/" + restaurantId, null, token).body()) {
+            if (candidate.get("id").asLong() == listingId) listing = candidate;
+        }
+        long remaining = listing == null ? -1 : listing.get("remainingQuantity").asLong();
+        check(remaining == quantity - claimedQuantity,
+                "remainingQuantity is %d, expected %d - %d claimed", remaining, quantity, claimedQuantity);
+
+        long stored = 0;
+        long storedRedeemed = 0;
+        for (JsonNode claim : client.call("GET", "/api/claims/listing/" + listingId, null, token).body()) {
+            stored += claim.get("quantity").asLong();
+            if ("REDEEMED".equals(claim.get("status").asText())) storedRedeemed++;
+        }
+        check(stored == claimedQuantity, "%d portions stored as claims, %d acknowledged", stored, claimedQuantity);
+        check(storedRedeemed == redeemed, "%d claims stored as redeemed, %d acknowledged", storedRedeemed, redeemed);
+
+        int probes = 0;
+        for (String qrToken : redeemedTokens) {
+            if (probes++ == DOUBLE_REDEEM_PROBES) break;
+            LoadClient.Result again = client.call("POST", "/api/claims/redeem?qrToken=" + qrToken, null, token);
+            check(!again.ok(), "QR code %s redeemed twice", qrToken);
+        }
+    }
+
+    private void check(boolean holds, String message, Object... args) {
+        if (!holds) violations.add(String.format(message, args));
+    }
+
+    private static void require(LoadClient.Result result, String what) {
+        if (!result.ok()) throw new IllegalStateException(what + " failed with HTTP " + result.status() + ": " + result.body());
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long wait;
+        while ((wait = nanoTime - System.nanoTime()) > 0) {
+            if (wait > 2_000_000) {
+                try {
+                    Thread.sleep(wait / 1_000_000 - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
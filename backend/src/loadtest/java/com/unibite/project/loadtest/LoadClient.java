@@ -0,0 +1,154 @@
+package com.unibite.project.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Thin JSON-over-HTTP client that records one latency histogram and one outcome
+// breakdown per named operation. Latency is measured from the moment a request
+// was *scheduled*, not sent, so a stalled server can't hide behind a stalled
+// client (coordinated omission).
+final class LoadClient {
+
+    record Result(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    static final class Operation {
+        final String name;
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+        final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        volatile long firstStart = Long.MAX_VALUE;
+        volatile long lastEnd;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        long count() {
+            return latencyMicros.getTotalCount();
+        }
+
+        long okCount() {
+            return outcomes.getOrDefault("200", new LongAdder()).sum();
+        }
+    }
+
+    static final JsonMapper JSON = JsonMapper.builder().build();
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    LoadClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(Executors.newFixedThreadPool(32, runnable -> {
+                    Thread thread = new Thread(runnable, "load-client");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    // Blocking, unrecorded: used for seeding and checks
+    Result call(String method, String path, Object body, String sessionToken) {
+        return send(method, path, body, sessionToken).join();
+    }
+
+    CompletableFuture<Result> timed(String operation, long scheduledNanos,
+                                    String method, String path, Object body, String sessionToken) {
+        Operation op = operations.computeIfAbsent(operation, Operation::new);
+        synchronized (op) {
+            op.firstStart = Math.min(op.firstStart, scheduledNanos);
+        }
+        return send(method, path, body, sessionToken).handle((result, error) -> {
+            long end = System.nanoTime();
+            op.latencyMicros.recordValue(Math.max(0, (end - scheduledNanos) / 1_000));
+            synchronized (op) {
+                op.lastEnd = Math.max(op.lastEnd, end);
+            }
+            String outcome = error != null ? rootCause(error).getClass().getSimpleName() : String.valueOf(result.status());
+            op.outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+            return error != null ? new Result(-1, null) : result;
+        });
+    }
+
+    Map<String, Operation> operations() {
+        return new TreeMap<>(operations);
+    }
+
+    void report(PrintStream out, Path histogramDir) throws IOException {
+        Files.createDirectories(histogramDir);
+        out.printf("%-10s %8s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "operation", "count", "ok", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "outcomes");
+        for (Operation op : operations().values()) {
+            Histogram h = op.latencyMicros;
+            double seconds = Math.max(1, op.lastEnd - op.firstStart) / 1e9;
+            out.printf("%-10s %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    op.name, op.count(), op.okCount(), op.count() / seconds,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                    ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()),
+                    new TreeMap<>(op.outcomes));
+
+            try (PrintStream hgrm = new PrintStream(new FileOutputStream(histogramDir.resolve(op.name + ".hgrm").toFile()))) {
+                h.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+    }
+
+    private CompletableFuture<Result> send(String method, String path, Object body, String sessionToken) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json");
+        if (sessionToken != null) request.header("X-Session-Token", sessionToken);
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> new Result(response.statusCode(), parse(response.body())));
+    }
+
+    private static JsonNode parse(byte[] body) {
+        if (body.length == 0) return null;
+        try {
+            return JSON.readTree(body);
+        } catch (RuntimeException e) {
+            return JSON.getNodeFactory().textNode(new String(body));
+        }
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        while (error.getCause() != null) error = error.getCause();
+        return error;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -3,9 +3,15 @@ package com.unibite.project.auth;
 import com.unibite.project.auth.dto.AuthResponse;
 import com.unibite.project.auth.dto.LoginRequest;
 import com.unibite.project.auth.dto.RegisterRequest;
+import com.unibite.project.common.Coordinates;
+import com.unibite.project.common.QrTokens;
 import com.unibite.project.users.User;
+import com.unibite.project.users.UserDirectory;
 import com.unibite.project.users.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -16,12 +22,24 @@ public class AuthService {
 
     private final UserRepository userRepo;
     private final SessionRepository sessionRepo;
+    private final SessionCache sessionCache;
+    private final UserDirectory userDirectory;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
 
-    public AuthService(UserRepository userRepo, SessionRepository sessionRepo) {
+    public AuthService(UserRepository userRepo, SessionRepository sessionRepo,
+                       SessionCache sessionCache, UserDirectory userDirectory,
+                       PasswordHasher passwordHasher, PlatformTransactionManager transactionManager) {
         this.userRepo = userRepo;
         this.sessionRepo = sessionRepo;
+        this.sessionCache = sessionCache;
+        this.userDirectory = userDirectory;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // Hashing happens before the write transaction opens, so the single writer
+    // connection is never held while BCrypt runs.
     public void register(RegisterRequest req) {
         if (userRepo.findByEmail(req.email).isPresent()) {
             throw new RuntimeException("Email already exists");
@@ -32,33 +50,73 @@ public class AuthService {
             throw new RuntimeException("Invalid role");
         }
 
+        String passwordHash = passwordHasher.hash(req.password);
+
         User user = new User();
         user.setEmail(req.email);
-        user.setPasswordHash(req.password);
+        user.setPasswordHash(passwordHash);
         user.setRole(role);
         user.setPhone(req.phone);
         user.setDisplayName(resolveDisplayName(req, role));
-        user.setQrToken(UUID.randomUUID().toString());
+        user.setQrToken(QrTokens.newUserToken());
+        if (role.equals("STUDENT")) {
+            user.setDailyClaimLimit(req.dailyClaimLimit);
+        } else {
+            Coordinates.check(req.latitude, req.longitude);
+            user.setAddress(req.address);
+            user.setMapLink(req.mapLink);
+            user.setLatitude(req.latitude);
+            user.setLongitude(req.longitude);
+        }
 
-        userRepo.save(user);
+        Long userId = transactionTemplate.execute(status -> {
+            // Re-checked on the writer: another sign-up may have landed while hashing
+            if (userRepo.findByEmail(req.email).isPresent()) {
+                throw new RuntimeException("Email already exists");
+            }
+            return userRepo.save(user).getId();
+        });
+        userDirectory.refresh(userId);
     }
 
     public AuthResponse login(LoginRequest req) {
-        User user = userRepo.findByEmail(req.email)
+        User found = userRepo.findByEmail(req.email)
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
-        if (!req.password.equals(user.getPasswordHash())) {
+        if (!passwordHasher.matches(req.password, found.getPasswordHash())) {
             throw new RuntimeException("Invalid credentials");
         }
 
+        // Upgrades plaintext passwords and hashes made with an older strength
+        String rehashed = passwordHasher.needsRehash(found.getPasswordHash())
+                ? passwordHasher.hash(req.password)
+                : null;
+
+        return transactionTemplate.execute(status -> startSession(found, rehashed));
+    }
+
+    @Transactional
+    public void logout(String token) {
+        sessionRepo.deleteById(token);
+        sessionCache.invalidate(token);
+    }
+
+    private AuthResponse startSession(User user, String rehashed) {
+        if (rehashed != null) {
+            user.setPasswordHash(rehashed);
+        }
+
+        boolean nameChanged = false;
         if (user.getDisplayName() == null || user.getDisplayName().isBlank()) {
             user.setDisplayName(deriveNameFromEmail(user.getEmail()));
+            nameChanged = true;
         }
 
         if (user.getQrToken() == null || user.getQrToken().isBlank()) {
-            user.setQrToken(UUID.randomUUID().toString());
+            user.setQrToken(QrTokens.newUserToken());
         }
         user = userRepo.save(user);
+        if (nameChanged) userDirectory.refresh(user.getId());
 
         String token = UUID.randomUUID().toString();
         Instant expiresAt = Instant.now().plus(7, ChronoUnit.DAYS);
@@ -74,10 +132,6 @@ public class AuthService {
                 user.getQrToken()
         );
     }
-
-    public void logout(String token) {
-        sessionRepo.deleteById(token);
-    }
 
     private String resolveDisplayName(RegisterRequest req, String role) {
         if (req.displayName != null && !req.displayName.isBlank()) {
@@ -0,0 +1,142 @@
+package com.unibite.project.auth;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// BCrypt is deliberately slow, so it runs on its own small pool instead of the
+// request threads. When the pool and its queue are full, callers get a 503 right
+// away rather than piling up behind a login storm.
+@Component
+public class PasswordHasher implements MeterBinder {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+
+    public PasswordHasher(@Value("${unibite.auth.bcrypt.strength:10}") int strength,
+                          @Value("${unibite.auth.hash.threads:0}") int threads,
+                          @Value("${unibite.auth.hash.queue-capacity:64}") int queueCapacity,
+                          @Value("${unibite.auth.hash.timeout-ms:5000}") long timeoutMs) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMs = timeoutMs;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String storedHash) {
+        if (storedHash == null) return false;
+        if (!isBcrypt(storedHash)) {
+            // Accounts created before hashing still hold the plaintext password.
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> encoder.matches(rawPassword, storedHash));
+    }
+
+    // True for plaintext passwords and hashes made with a lower cost than the current one
+    public boolean needsRehash(String storedHash) {
+        return !isBcrypt(storedHash) || encoder.upgradeEncoding(storedHash);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("unibite.auth.hash", executor, ThreadPoolExecutor::getCompletedTaskCount,
+                        pool -> hashNanos.get(), TimeUnit.NANOSECONDS)
+                .description("Time spent in BCrypt")
+                .register(registry);
+        FunctionTimer.builder("unibite.auth.hash.queue_wait", executor, ThreadPoolExecutor::getCompletedTaskCount,
+                        pool -> queueWaitNanos.get(), TimeUnit.NANOSECONDS)
+                .register(registry);
+        Gauge.builder("unibite.auth.hash.queued", executor, pool -> pool.getQueue().size()).register(registry);
+        Gauge.builder("unibite.auth.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        FunctionCounter.builder("unibite.auth.hash.shed", rejected, AtomicLong::get).tag("cause", "queue_full").register(registry);
+        FunctionCounter.builder("unibite.auth.hash.shed", timedOut, AtomicLong::get).tag("cause", "timeout").register(registry);
+    }
+
+    private <T> T run(Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWaitNanos.addAndGet(started - submitted);
+                try {
+                    return work.call();
+                } finally {
+                    hashNanos.addAndGet(System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw overloaded();
+        }
+
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timedOut.incrementAndGet();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ResponseStatusException overloaded() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-ins right now, try again shortly");
+    }
+
+    private static boolean isBcrypt(String storedHash) {
+        return storedHash != null && storedHash.startsWith("$2");
+    }
+}
@@ -0,0 +1,73 @@
+package com.unibite.project.auth;
+
+import com.unibite.project.config.RateLimitFilter;
+import com.unibite.project.config.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+// Resolves X-Session-Token to a user id for /api requests. Requests without a
+// token pass through anonymously; an unknown or expired token is rejected.
+// Tokens that miss the cache are charged to the caller's address in the AUTH
+// rate-limit group before the table is read, so guessing tokens is throttled
+// like guessing passwords and can't turn into a stream of session queries.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class SessionAuthFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_HEADER = "X-Session-Token";
+    public static final String USER_ID_ATTRIBUTE = "unibite.userId";
+
+    private final SessionCache sessionCache;
+    private final RateLimiter limiter;
+    private final boolean limitLookups;
+
+    public SessionAuthFilter(SessionCache sessionCache, RateLimiter limiter,
+                             @Value("${unibite.ratelimit.enabled:true}") boolean limitLookups) {
+        this.sessionCache = sessionCache;
+        this.limiter = limiter;
+        this.limitLookups = limitLookups;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.startsWith("/api/") || path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(SESSION_HEADER);
+        if (token == null || token.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (limitLookups && sessionCache.needsLookup(token)) {
+            long waitNanos = limiter.acquire(RateLimiter.Group.AUTH, RateLimitFilter.addressOf(request));
+            if (waitNanos > 0) {
+                RateLimitFilter.reject(response, waitNanos);
+                return;
+            }
+        }
+
+        Optional<Long> userId = sessionCache.resolve(token);
+        if (userId.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired session");
+            return;
+        }
+
+        request.setAttribute(USER_ID_ATTRIBUTE, userId.get());
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,82 @@
+package com.unibite.project.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Read-through cache of session token -> user id. Entries are reloaded after
+// the TTL, and the oldest entries are dropped once max-size is exceeded.
+@Component
+public class SessionCache {
+
+    private record CachedSession(Long userId, Instant expiresAt, long loadedAtNanos) {}
+
+    private final SessionRepository sessionRepo;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<String, CachedSession> sessions = new ConcurrentHashMap<>();
+
+    public SessionCache(SessionRepository sessionRepo,
+                        @Value("${unibite.sessions.cache.ttl:PT5M}") Duration ttl,
+                        @Value("${unibite.sessions.cache.max-size:10000}") int maxSize) {
+        this.sessionRepo = sessionRepo;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public Optional<Long> resolve(String token) {
+        long now = System.nanoTime();
+        CachedSession cached = sessions.get(token);
+        if (cached == null || now - cached.loadedAtNanos() > ttlNanos) {
+            cached = sessionRepo.findById(token)
+                    .map(session -> new CachedSession(session.getUserId(), session.getExpiresAt(), now))
+                    .orElse(null);
+            if (cached == null) {
+                sessions.remove(token);
+                return Optional.empty();
+            }
+            sessions.put(token, cached);
+            if (sessions.size() > maxSize) evict();
+        }
+
+        if (cached.expiresAt() != null && cached.expiresAt().isBefore(Instant.now())) {
+            sessions.remove(token);
+            return Optional.empty();
+        }
+        return Optional.of(cached.userId());
+    }
+
+    // True when resolve would have to read the sessions table for this token
+    public boolean needsLookup(String token) {
+        CachedSession cached = sessions.get(token);
+        return cached == null || System.nanoTime() - cached.loadedAtNanos() > ttlNanos;
+    }
+
+    public void invalidate(String token) {
+        sessions.remove(token);
+    }
+
+    public void invalidateAll(Collection<String> tokens) {
+        tokens.forEach(sessions::remove);
+    }
+
+    private synchronized void evict() {
+        int excess = sessions.size() - maxSize * 9 / 10;
+        if (excess <= 0) return;
+
+        sessions.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAtNanos()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(sessions::remove);
+    }
+}
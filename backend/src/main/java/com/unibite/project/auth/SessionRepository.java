@@ -1,6 +1,17 @@
 package com.unibite.project.auth;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+
+@Transactional(readOnly = true)
 public interface SessionRepository extends JpaRepository<Session, String> {
-}
\ No newline at end of file
+
+    @Query("select s.token from Session s where s.expiresAt < :now")
+    List<String> findExpiredTokens(@Param("now") Instant now, Pageable page);
+}
@@ -0,0 +1,42 @@
+package com.unibite.project.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+// Deletes expired sessions in small chunks, one short transaction per chunk,
+// so the cleanup never holds the SQLite write lock for long.
+@Component
+public class SessionSweeper {
+
+    private final SessionRepository sessionRepo;
+    private final SessionCache sessionCache;
+    private final int chunkSize;
+
+    public SessionSweeper(SessionRepository sessionRepo, SessionCache sessionCache,
+                          @Value("${unibite.sessions.sweep-chunk-size:500}") int chunkSize) {
+        this.sessionRepo = sessionRepo;
+        this.sessionCache = sessionCache;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.sessions.sweep-interval:PT10M}", initialDelayString = "PT1M")
+    public int sweep() {
+        Instant now = Instant.now();
+        int deleted = 0;
+        while (true) {
+            List<String> expired = sessionRepo.findExpiredTokens(now, PageRequest.of(0, chunkSize));
+            if (expired.isEmpty()) break;
+
+            sessionRepo.deleteAllByIdInBatch(expired);
+            sessionCache.invalidateAll(expired);
+            deleted += expired.size();
+            if (expired.size() < chunkSize) break;
+        }
+        return deleted;
+    }
+}
@@ -26,4 +26,12 @@ public class RegisterRequest {
     public String restaurantName;
     public String address;
     public String mapLink;
+
+    @DecimalMin(value = "-90", message = "latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "latitude must be between -90 and 90")
+    public Double latitude;
+
+    @DecimalMin(value = "-180", message = "longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "longitude must be between -180 and 180")
+    public Double longitude;
 }
\ No newline at end of file
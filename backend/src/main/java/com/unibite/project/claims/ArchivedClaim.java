@@ -0,0 +1,54 @@
+package com.unibite.project.claims;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// A redeemed or canceled claim moved out of the hot claims table by
+// ClaimArchiver. Same id and columns; read back as a Claim for history views.
+@Entity
+@Table(name = "claims_archive")
+public class ArchivedClaim {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long listingId;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ClaimStatus status;
+
+    @Column(nullable = false)
+    private String qrToken;
+
+    private Instant claimedAt;
+    private Instant redeemedAt;
+    private Instant archivedAt;
+
+    protected ArchivedClaim() {}
+
+    public Claim toClaim() {
+        Claim claim = new Claim();
+        claim.setId(id);
+        claim.setListingId(listingId);
+        claim.setStudentId(studentId);
+        claim.setQuantity(quantity);
+        claim.setStatus(status);
+        claim.setQrToken(qrToken);
+        claim.setClaimedAt(claimedAt);
+        claim.setRedeemedAt(redeemedAt);
+        return claim;
+    }
+
+    public Long getId() { return id; }
+    public ClaimStatus getStatus() { return status; }
+    public Instant getClaimedAt() { return claimedAt; }
+    public Instant getArchivedAt() { return archivedAt; }
+}
@@ -0,0 +1,20 @@
+package com.unibite.project.claims;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public interface ArchivedClaimRepository extends JpaRepository<ArchivedClaim, Long>, JpaSpecificationExecutor<ArchivedClaim> {
+    List<ArchivedClaim> findByStudentId(Long studentId);
+    List<ArchivedClaim> findByListingId(Long listingId);
+    Optional<ArchivedClaim> findByQrToken(String qrToken);
+
+    @Query("select c from ArchivedClaim c, FoodListing l where l.id = c.listingId and l.restaurantId = :restaurantId")
+    List<ArchivedClaim> findByRestaurantId(@Param("restaurantId") Long restaurantId);
+}
@@ -1,5 +1,6 @@
 package com.unibite.project.claims;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.Instant;
 
@@ -30,9 +31,28 @@ public class Claim {
     private Instant claimedAt = Instant.now();
     private Instant redeemedAt;
 
+    // Client-supplied Idempotency-Key; unique per student (see SqliteSchemaBootstrap)
+    @JsonIgnore
+    private String idempotencyKey;
+
     public Claim() {}
 
+    // Unsaved copy for retrying an insert whose transaction rolled back
+    Claim copy() {
+        Claim copy = new Claim();
+        copy.listingId = listingId;
+        copy.studentId = studentId;
+        copy.quantity = quantity;
+        copy.status = status;
+        copy.qrToken = qrToken;
+        copy.claimedAt = claimedAt;
+        copy.redeemedAt = redeemedAt;
+        copy.idempotencyKey = idempotencyKey;
+        return copy;
+    }
+
     public Long getId() { return id; }
+    void setId(Long id) { this.id = id; }
 
     public Long getListingId() { return listingId; }
     public void setListingId(Long listingId) { this.listingId = listingId; }
@@ -50,7 +70,11 @@ public class Claim {
     public void setQrToken(String qrToken) { this.qrToken = qrToken; }
 
     public Instant getClaimedAt() { return claimedAt; }
+    void setClaimedAt(Instant claimedAt) { this.claimedAt = claimedAt; }
 
     public Instant getRedeemedAt() { return redeemedAt; }
     public void setRedeemedAt(Instant redeemedAt) { this.redeemedAt = redeemedAt; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.unibite.project.claims;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves redeemed and canceled claims older than min-age from claims into
+// claims_archive, chunk-size rows per write transaction, so the hot table (and
+// its share of the page cache) only holds claims that can still change.
+@Component
+public class ClaimArchiver implements MeterBinder {
+
+    private static final String COLUMNS = "id, listing_id, student_id, quantity, status, qr_token, claimed_at, redeemed_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+
+    private final AtomicLong archived = new AtomicLong();
+
+    public ClaimArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         @Value("${unibite.claims.archive.enabled:true}") boolean enabled,
+                         @Value("${unibite.claims.archive.min-age:P30D}") Duration minAge,
+                         @Value("${unibite.claims.archive.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.claims.archive.interval:PT10M}")
+    public void run() {
+        if (enabled) archive(Instant.now().minus(minAge));
+    }
+
+    // Returns how many claims were moved
+    public int archive(Instant claimedBefore) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveChunk(claimedBefore));
+            total += moved;
+        } while (moved == chunkSize);
+        return total;
+    }
+
+    private int moveChunk(Instant claimedBefore) {
+        // The newest claim always stays: SQLite hands out max(id) + 1, and a
+        // reused id would collide with its archived namesake
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM claims WHERE status IN ('REDEEMED', 'CANCELED') AND claimed_at < ? "
+                        + "AND id < (SELECT MAX(id) FROM claims) ORDER BY id LIMIT ?",
+                Long.class, claimedBefore.toEpochMilli(), chunkSize);
+        if (ids.isEmpty()) return 0;
+
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Instant.now().toEpochMilli());
+        args.addAll(ids);
+        jdbcTemplate.update("INSERT INTO claims_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS
+                + ", ? FROM claims WHERE id IN (" + in + ")", args.toArray());
+        jdbcTemplate.update("DELETE FROM claims WHERE id IN (" + in + ")", ids.toArray());
+
+        archived.addAndGet(ids.size());
+        return ids.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("unibite.claims.archived", archived, AtomicLong::get)
+                .description("Claims moved to claims_archive")
+                .register(registry);
+    }
+}
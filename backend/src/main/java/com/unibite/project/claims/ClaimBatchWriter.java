@@ -0,0 +1,210 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.common.SqliteErrors;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Group commit for claim inserts: callers enqueue and wait, a single writer
+// thread commits whatever has queued up (up to max-size, waiting at most
+// max-linger-ms for more) in one transaction. A claim still queued after
+// max-wait-ms is withdrawn and refused with 503; one the writer has taken is
+// waited out, since every way out of the writer completes it.
+@Component
+public class ClaimBatchWriter implements MeterBinder {
+
+    public record Stats(long batches, long claims, int lastBatchSize, int maxBatchSize, double averageBatchSize) {}
+
+    private record PendingClaim(Claim claim, CompletableFuture<Claim> result) {}
+
+    private final ClaimRepository claimRepo;
+    private final ClaimRollups rollups;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final long maxWaitMs;
+
+    private final BlockingQueue<PendingClaim> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSeen = new AtomicInteger();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong busyFailures = new AtomicLong();
+
+    private volatile boolean running = true;
+    // Set once the writer thread has left its loop, for whatever reason
+    private volatile boolean stopped;
+    private Thread writerThread;
+
+    public ClaimBatchWriter(ClaimRepository claimRepo, ClaimRollups rollups,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${unibite.claims.batch.max-size:64}") int maxBatchSize,
+                            @Value("${unibite.claims.batch.max-linger-ms:2}") long maxLingerMs,
+                            @Value("${unibite.claims.batch.max-wait-ms:10000}") long maxWaitMs) {
+        this.claimRepo = claimRepo;
+        this.rollups = rollups;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::run, "claim-batch-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public Claim write(Claim claim) {
+        if (!running) throw new RuntimeException("Claim writer is shutting down");
+
+        PendingClaim pending = new PendingClaim(claim, new CompletableFuture<>());
+        queue.add(pending);
+        // The writer may have drained the queue for the last time since the check above
+        if (stopped && queue.remove(pending)) throw new RuntimeException("Claim writer is shutting down");
+
+        try {
+            try {
+                return pending.result().get(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Claims are backed up, try again shortly");
+                }
+                // Already in a batch: its transaction decides, bounded by the writer gate and busy_timeout
+                return pending.result().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for the claim writer");
+        }
+    }
+
+    public Stats stats() {
+        long batchCount = batches.get();
+        long claimCount = claims.get();
+        return new Stats(batchCount, claimCount, lastBatchSize.get(), maxBatchSeen.get(),
+                batchCount == 0 ? 0 : (double) claimCount / batchCount);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unibite.claims.batch.queued", queue, BlockingQueue::size).register(registry);
+        FunctionCounter.builder("unibite.claims.batch.commits", batches, AtomicLong::get).register(registry);
+        FunctionCounter.builder("unibite.claims.batch.claims", claims, AtomicLong::get).register(registry);
+        FunctionCounter.builder("unibite.claims.batch.retried", failedBatches, AtomicLong::get)
+                .description("Batches that failed and were retried claim by claim")
+                .register(registry);
+        FunctionCounter.builder("unibite.sqlite.busy", busyFailures, AtomicLong::get)
+                .tag("component", "claim-batch-writer")
+                .register(registry);
+    }
+
+    private void run() {
+        List<PendingClaim> batch = new ArrayList<>(maxBatchSize);
+        try {
+            loop(batch);
+        } finally {
+            // Normal stop, interrupt or an Error: nobody may be left waiting
+            running = false;
+            stopped = true;
+            RuntimeException stopping = new RuntimeException("Claim writer is shutting down");
+            batch.forEach(pending -> pending.result().completeExceptionally(stopping));
+            List<PendingClaim> stranded = new ArrayList<>();
+            queue.drainTo(stranded);
+            stranded.forEach(pending -> pending.result().completeExceptionally(stopping));
+        }
+    }
+
+    private void loop(List<PendingClaim> batch) {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingClaim first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingClaim next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                commit(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingClaim> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(pending -> claimRepo.save(pending.claim()));
+                rollups.claimed(batch.stream().map(PendingClaim::claim).toList());
+            });
+            batch.forEach(pending -> pending.result().complete(pending.claim()));
+        } catch (RuntimeException e) {
+            if (SqliteErrors.isBusy(e)) busyFailures.incrementAndGet();
+            if (batch.size() == 1) throw e;
+            failedBatches.incrementAndGet();
+
+            // One bad row must not fail its neighbours: retry each claim on its own.
+            for (PendingClaim pending : batch) {
+                try {
+                    Claim saved = transactionTemplate.execute(status -> {
+                        Claim single = claimRepo.save(pending.claim().copy());
+                        rollups.claimed(List.of(single));
+                        return single;
+                    });
+                    pending.result().complete(saved);
+                } catch (RuntimeException single) {
+                    if (SqliteErrors.isBusy(single)) busyFailures.incrementAndGet();
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+
+        batches.incrementAndGet();
+        claims.addAndGet(batch.size());
+        lastBatchSize.set(batch.size());
+        maxBatchSeen.accumulateAndGet(batch.size(), Math::max);
+    }
+}
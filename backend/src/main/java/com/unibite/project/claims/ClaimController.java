@@ -1,9 +1,15 @@
 package com.unibite.project.claims;
 
 import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.common.CollectionVersions;
+import com.unibite.project.common.CursorPage;
+import com.unibite.project.common.Keyset;
+import org.springframework.http.ResponseEntity;
 import com.unibite.project.claims.dto.CreateClaimRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -11,27 +17,48 @@ import java.util.List;
 public class ClaimController {
 
     private final ClaimService claimService;
+    private final ClaimBatchWriter claimWriter;
+    private final CollectionVersions versions;
 
-    public ClaimController(ClaimService claimService) {
+    public ClaimController(ClaimService claimService, ClaimBatchWriter claimWriter, CollectionVersions versions) {
         this.claimService = claimService;
+        this.claimWriter = claimWriter;
+        this.versions = versions;
     }
 
     // Student claims a listing
     @PostMapping
-    public ClaimResponse create(@RequestBody CreateClaimRequest req) {
-        return claimService.createClaim(req);
+    public ClaimResponse create(@RequestBody CreateClaimRequest req,
+                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return claimService.createClaim(req, idempotencyKey);
     }
 
-    // Student: view their claims
+    // Student: view their claims. Deprecated in favour of /feed, still complete for now
     @GetMapping("/student/{studentId}")
-    public List<Claim> byStudent(@PathVariable Long studentId) {
-        return claimService.getClaimsByStudent(studentId);
+    public ResponseEntity<List<Claim>> byStudent(@PathVariable Long studentId, WebRequest request) {
+        String etag = versions.etag(CollectionVersions.Kind.CLAIMS);
+        if (request.checkNotModified(etag)) return null;
+        return Keyset.unpaged(ResponseEntity.ok().eTag(etag), "/api/claims/student/" + studentId + "/feed")
+                .body(claimService.getClaimsByStudent(studentId));
+    }
+
+    // Student: their claims newest first, one page at a time
+    @GetMapping("/student/{studentId}/feed")
+    public CursorPage<Claim> studentFeed(@PathVariable Long studentId,
+                                         @RequestParam(required = false) ClaimStatus status,
+                                         @RequestParam(required = false) Instant from,
+                                         @RequestParam(required = false) Instant to,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        return claimService.getClaimPageByStudent(studentId, status, from, to, cursor, limit);
     }
 
     // Restaurant: view claims for a listing
     @GetMapping("/listing/{listingId}")
-    public List<Claim> byListing(@PathVariable Long listingId) {
-        return claimService.getClaimsByListing(listingId);
+    public ResponseEntity<List<Claim>> byListing(@PathVariable Long listingId, WebRequest request) {
+        String etag = versions.etag(CollectionVersions.Kind.CLAIMS);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).body(claimService.getClaimsByListing(listingId));
     }
 
     // Restaurant: redeem claim by token
@@ -40,6 +67,12 @@ public class ClaimController {
         return claimService.redeemByToken(qrToken);
     }
 
+    // Ops: achieved group-commit batch sizes
+    @GetMapping("/pipeline")
+    public ClaimBatchWriter.Stats pipeline() {
+        return claimWriter.stats();
+    }
+
     @PostMapping("/{claimId}/cancel")
     public Claim cancel(@PathVariable Long claimId) {
         return claimService.cancelClaim(claimId);
@@ -0,0 +1,62 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.listings.InventoryLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Claim lifecycle counters. Rejections are tagged with the reason so a flash
+// drop shows up as sold_out, not as a generic error rate.
+@Component
+public class ClaimMetrics {
+
+    private final Counter created;
+    private final Counter canceled;
+    private final Counter redeemedIndexed;
+    private final Counter redeemedLookup;
+    private final Counter rejectedInvalid;
+    private final Counter rejectedDailyLimit;
+    private final Map<InventoryLedger.Outcome, Counter> rejected = new EnumMap<>(InventoryLedger.Outcome.class);
+
+    public ClaimMetrics(MeterRegistry registry) {
+        this.created = registry.counter("unibite.claims.claimed");
+        this.canceled = registry.counter("unibite.claims.canceled");
+        this.redeemedIndexed = registry.counter("unibite.claims.redeemed", "path", "index");
+        this.redeemedLookup = registry.counter("unibite.claims.redeemed", "path", "lookup");
+        this.rejectedInvalid = registry.counter("unibite.claims.rejected", "reason", "invalid");
+        this.rejectedDailyLimit = registry.counter("unibite.claims.rejected", "reason", "daily_limit");
+        for (InventoryLedger.Outcome outcome : InventoryLedger.Outcome.values()) {
+            if (outcome == InventoryLedger.Outcome.RESERVED) continue;
+            rejected.put(outcome, registry.counter("unibite.claims.rejected",
+                    "reason", outcome.name().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    void created() {
+        created.increment();
+    }
+
+    void canceled() {
+        canceled.increment();
+    }
+
+    void redeemed(boolean fromIndex) {
+        (fromIndex ? redeemedIndexed : redeemedLookup).increment();
+    }
+
+    void rejected(InventoryLedger.Outcome outcome) {
+        rejected.get(outcome).increment();
+    }
+
+    void rejectedInvalid() {
+        rejectedInvalid.increment();
+    }
+
+    void rejectedDailyLimit() {
+        rejectedDailyLimit.increment();
+    }
+}
@@ -0,0 +1,133 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.users.ClaimLimit;
+import com.unibite.project.users.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Claims per student per calendar day, checked before a claim touches any
+// listing. Counters live in memory with one lock per student, are rebuilt from
+// today's claims on startup, and go back down when a claim is canceled.
+@Component
+public class ClaimQuota implements MeterBinder {
+
+    private static final class Usage {
+        long day;
+        int used;
+        boolean retired;
+
+        // Null once swept out of the map: the caller looks the student up again
+        synchronized Boolean tryAcquire(long today, int limit) {
+            if (retired) return null;
+            if (day != today) {
+                day = today;
+                used = 0;
+            }
+            if (used >= limit) return false;
+            used++;
+            return true;
+        }
+
+        synchronized void release(long claimDay) {
+            if (day == claimDay && used > 0) used--;
+        }
+
+        synchronized boolean retireIfBefore(long today) {
+            if (day < today) retired = true;
+            return retired;
+        }
+    }
+
+    private final ClaimRepository claimRepo;
+    private final UserRepository userRepo;
+    private final ZoneId zone;
+    private final int defaultLimit;
+
+    private final ConcurrentHashMap<Long, Usage> usage = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> limits = new ConcurrentHashMap<>();
+
+    public ClaimQuota(ClaimRepository claimRepo, UserRepository userRepo,
+                      @Value("${unibite.claims.quota.zone:America/Winnipeg}") ZoneId zone,
+                      @Value("${unibite.claims.quota.default-daily-limit:0}") int defaultLimit) {
+        this.claimRepo = claimRepo;
+        this.userRepo = userRepo;
+        this.zone = zone;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        for (ClaimLimit limit : userRepo.findByDailyClaimLimitIsNotNull()) {
+            limits.put(limit.getId(), limit.getDailyClaimLimit());
+        }
+
+        long today = day(Instant.now());
+        Instant startOfDay = LocalDate.ofEpochDay(today).atStartOfDay(zone).toInstant();
+        for (Claim claim : claimRepo.findByClaimedAtGreaterThanEqualAndStatusNot(startOfDay, ClaimStatus.CANCELED)) {
+            Usage counter = usage.computeIfAbsent(claim.getStudentId(), id -> new Usage());
+            counter.day = today;
+            counter.used++;
+        }
+    }
+
+    // False when the student has used up today's claims
+    public boolean tryAcquire(Long studentId, Instant at) {
+        int limit = limitFor(studentId);
+        if (limit <= 0) return true;
+
+        long today = day(at);
+        while (true) {
+            Boolean acquired = usage.computeIfAbsent(studentId, id -> new Usage()).tryAcquire(today, limit);
+            if (acquired != null) return acquired;
+        }
+    }
+
+    public void release(Long studentId, Instant claimedAt) {
+        Usage counter = usage.get(studentId);
+        if (counter != null) counter.release(day(claimedAt));
+    }
+
+    public int tracked() {
+        return usage.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unibite.claims.quota.students", this, ClaimQuota::tracked)
+                .description("Students with a claim counted today")
+                .register(registry);
+    }
+
+    // Yesterday's counters are reset on use anyway; this only frees the memory
+    @Scheduled(fixedDelayString = "${unibite.claims.quota.sweep-interval:PT1H}")
+    public void sweep() {
+        long today = day(Instant.now());
+        usage.values().removeIf(counter -> counter.retireIfBefore(today));
+    }
+
+    private int limitFor(Long studentId) {
+        Integer limit = limits.get(studentId);
+        if (limit != null) return limit;
+
+        // Students registered since startup
+        Integer own = userRepo.findClaimLimitById(studentId).map(ClaimLimit::getDailyClaimLimit).orElse(null);
+        int loaded = own != null ? own : defaultLimit;
+        limits.putIfAbsent(studentId, loaded);
+        return loaded;
+    }
+
+    private long day(Instant instant) {
+        return LocalDate.ofInstant(instant, zone).toEpochDay();
+    }
+}
@@ -1,13 +1,35 @@
 package com.unibite.project.claims;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
-public interface ClaimRepository extends JpaRepository<Claim, Long> {
+// Derived and @Query finders run read-only, so outside a write transaction they
+// take a reader connection instead of queueing for the writer.
+@Transactional(readOnly = true)
+public interface ClaimRepository extends JpaRepository<Claim, Long>, JpaSpecificationExecutor<Claim> {
     List<Claim> findByStudentId(Long studentId);
     List<Claim> findByListingId(Long listingId);
     Optional<Claim> findByQrToken(String qrToken);
+
+    Optional<Claim> findByStudentIdAndIdempotencyKey(Long studentId, String idempotencyKey);
     Optional<Claim> findFirstByStudentIdAndStatusOrderByClaimedAtDesc(Long studentId, ClaimStatus status);
+    List<Claim> findByStatusAndClaimedAtGreaterThanEqual(ClaimStatus status, Instant since);
+    List<Claim> findByClaimedAtGreaterThanEqualAndStatusNot(Instant since, ClaimStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("update Claim c set c.status = com.unibite.project.claims.ClaimStatus.REDEEMED, c.redeemedAt = :now "
+            + "where c.id = :id and c.status = com.unibite.project.claims.ClaimStatus.CLAIMED")
+    int markRedeemed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Query("select c from Claim c, FoodListing l where l.id = c.listingId and l.restaurantId = :restaurantId")
+    List<Claim> findByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
@@ -0,0 +1,211 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.claims.dto.ClaimStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Claim statistics kept as running totals per (restaurant, day) and per listing.
+// Every claim write adds its delta in the same transaction, so reads are a
+// primary-key lookup no matter how many claims exist. A claim counts on the
+// day it was made; redeems and cancels land on that same day.
+@Component
+public class ClaimRollups {
+
+    private static final String DELTA_COLUMNS = "claims, meals, redeemed_claims, redeemed_meals, canceled_claims, canceled_meals";
+
+    private static final String ADD = " ON CONFLICT (%s) DO UPDATE SET claims = claims + excluded.claims, "
+            + "meals = meals + excluded.meals, "
+            + "redeemed_claims = redeemed_claims + excluded.redeemed_claims, "
+            + "redeemed_meals = redeemed_meals + excluded.redeemed_meals, "
+            + "canceled_claims = canceled_claims + excluded.canceled_claims, "
+            + "canceled_meals = canceled_meals + excluded.canceled_meals";
+
+    // The restaurant comes from the listing row
+    private static final String ADD_DAY = "INSERT INTO restaurant_daily_stats (restaurant_id, day, " + DELTA_COLUMNS + ") "
+            + "SELECT restaurant_id, ?, ?, ?, ?, ?, ?, ? FROM food_listings WHERE id = ?"
+            + String.format(ADD, "restaurant_id, day");
+
+    private static final String ADD_LISTING = "INSERT INTO listing_stats (listing_id, restaurant_id, " + DELTA_COLUMNS + ") "
+            + "SELECT id, restaurant_id, ?, ?, ?, ?, ?, ? FROM food_listings WHERE id = ?"
+            + String.format(ADD, "listing_id");
+
+    private static final String ALL_CLAIMS = "SELECT c.listing_id, l.restaurant_id, c.quantity, c.status, c.claimed_at "
+            + "FROM %s c JOIN food_listings l ON l.id = c.listing_id";
+
+    private static final RowMapper<ClaimStats> DAY_ROW = (rs, i) -> new ClaimStats(rs.getString("day"), null,
+            rs.getLong("claims"), rs.getLong("meals"), rs.getLong("redeemed_claims"), rs.getLong("redeemed_meals"),
+            rs.getLong("canceled_claims"), rs.getLong("canceled_meals"));
+
+    private static final RowMapper<ClaimStats> LISTING_ROW = (rs, i) -> new ClaimStats(null, rs.getLong("listing_id"),
+            rs.getLong("claims"), rs.getLong("meals"), rs.getLong("redeemed_claims"), rs.getLong("redeemed_meals"),
+            rs.getLong("canceled_claims"), rs.getLong("canceled_meals"));
+
+    public record RebuildResult(long claims, int days, int listings) {}
+
+    // One claim's contribution: [claims, meals, redeemedClaims, redeemedMeals, canceledClaims, canceledMeals]
+    private record Delta(Long listingId, String day, long[] values) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+    private final boolean rebuildOnStartup;
+
+    public ClaimRollups(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        @Value("${unibite.stats.zone:America/Winnipeg}") ZoneId zone,
+                        @Value("${unibite.stats.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.zone = zone;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    // Callers are inside the transaction that writes the claims
+
+    void claimed(List<Claim> claims) {
+        Map<String, Delta> merged = new LinkedHashMap<>();
+        for (Claim claim : claims) {
+            String day = day(claim.getClaimedAt());
+            Delta delta = merged.computeIfAbsent(claim.getListingId() + "/" + day,
+                    key -> new Delta(claim.getListingId(), day, new long[6]));
+            add(delta.values(), delta(claim.getQuantity(), ClaimStatus.CLAIMED));
+        }
+        apply(new ArrayList<>(merged.values()));
+    }
+
+    void redeemed(Claim claim) {
+        apply(List.of(new Delta(claim.getListingId(), day(claim.getClaimedAt()),
+                new long[]{0, 0, 1, claim.getQuantity(), 0, 0})));
+    }
+
+    void canceled(Claim claim) {
+        apply(List.of(new Delta(claim.getListingId(), day(claim.getClaimedAt()),
+                new long[]{0, 0, 0, 0, 1, claim.getQuantity()})));
+    }
+
+    // Databases from before the rollups existed start with empty tables. A full
+    // recount of a populated database only happens here, when rebuild-on-startup is set.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (rebuildOnStartup) {
+            rebuild();
+            return;
+        }
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM listing_stats)", Boolean.class);
+        Boolean hasClaims = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM claims) OR EXISTS (SELECT 1 FROM claims_archive)", Boolean.class);
+        if (Boolean.TRUE.equals(empty) && Boolean.TRUE.equals(hasClaims)) rebuild();
+    }
+
+    public List<ClaimStats> restaurantDays(Long restaurantId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT * FROM restaurant_daily_stats WHERE restaurant_id = ? AND day >= ? AND day <= ? "
+                + "ORDER BY day", DAY_ROW, restaurantId, from.toString(), to.toString());
+    }
+
+    public ClaimStats listing(Long listingId) {
+        List<ClaimStats> rows = jdbcTemplate.query("SELECT * FROM listing_stats WHERE listing_id = ?", LISTING_ROW, listingId);
+        return rows.isEmpty() ? new ClaimStats(null, listingId, 0, 0, 0, 0, 0, 0) : rows.get(0);
+    }
+
+    public List<ClaimStats> restaurantListings(Long restaurantId) {
+        return jdbcTemplate.query("SELECT * FROM listing_stats WHERE restaurant_id = ? ORDER BY listing_id",
+                LISTING_ROW, restaurantId);
+    }
+
+    // Recovery: recompute both tables from claims and claims_archive in one
+    // pass. Runs in a single write transaction, so claims wait until it's done
+    // and none can slip between the recount and the swap.
+    public RebuildResult rebuild() {
+        return transactionTemplate.execute(status -> {
+            Map<String, long[]> days = new HashMap<>();
+            Map<Long, long[]> listings = new HashMap<>();
+            Map<Long, Long> restaurants = new HashMap<>();
+            long[] seen = new long[1];
+
+            RowCallbackHandler accumulate = rs -> {
+                long listingId = rs.getLong(1);
+                long restaurantId = rs.getLong(2);
+                long[] delta = delta(rs.getInt(3), ClaimStatus.valueOf(rs.getString(4)));
+                String day = day(Instant.ofEpochMilli(rs.getLong(5)));
+                add(days.computeIfAbsent(restaurantId + "/" + day, key -> new long[6]), delta);
+                add(listings.computeIfAbsent(listingId, key -> new long[6]), delta);
+                restaurants.put(listingId, restaurantId);
+                seen[0]++;
+            };
+            jdbcTemplate.query(String.format(ALL_CLAIMS, "claims"), accumulate);
+            jdbcTemplate.query(String.format(ALL_CLAIMS, "claims_archive"), accumulate);
+
+            jdbcTemplate.update("DELETE FROM restaurant_daily_stats");
+            jdbcTemplate.update("DELETE FROM listing_stats");
+            jdbcTemplate.batchUpdate("INSERT INTO restaurant_daily_stats (restaurant_id, day, " + DELTA_COLUMNS + ") "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    days.entrySet().stream().map(entry -> {
+                        String[] key = entry.getKey().split("/");
+                        return row(new Object[]{Long.parseLong(key[0]), key[1]}, entry.getValue());
+                    }).toList());
+            jdbcTemplate.batchUpdate("INSERT INTO listing_stats (listing_id, restaurant_id, " + DELTA_COLUMNS + ") "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    listings.entrySet().stream()
+                            .map(entry -> row(new Object[]{entry.getKey(), restaurants.get(entry.getKey())}, entry.getValue()))
+                            .toList());
+            return new RebuildResult(seen[0], days.size(), listings.size());
+        });
+    }
+
+    // What a claim in its current status contributes in total
+    private static long[] delta(int quantity, ClaimStatus status) {
+        long[] delta = {1, quantity, 0, 0, 0, 0};
+        if (status == ClaimStatus.REDEEMED) {
+            delta[2] = 1;
+            delta[3] = quantity;
+        } else if (status == ClaimStatus.CANCELED) {
+            delta[4] = 1;
+            delta[5] = quantity;
+        }
+        return delta;
+    }
+
+    private void apply(List<Delta> deltas) {
+        jdbcTemplate.batchUpdate(ADD_DAY, deltas, deltas.size(), (PreparedStatement ps, Delta delta) -> {
+            ps.setString(1, delta.day());
+            for (int i = 0; i < 6; i++) ps.setLong(i + 2, delta.values()[i]);
+            ps.setLong(8, delta.listingId());
+        });
+        jdbcTemplate.batchUpdate(ADD_LISTING, deltas, deltas.size(), (PreparedStatement ps, Delta delta) -> {
+            for (int i = 0; i < 6; i++) ps.setLong(i + 1, delta.values()[i]);
+            ps.setLong(7, delta.listingId());
+        });
+    }
+
+    private static Object[] row(Object[] key, long[] values) {
+        Object[] row = new Object[key.length + values.length];
+        System.arraycopy(key, 0, row, 0, key.length);
+        for (int i = 0; i < values.length; i++) row[key.length + i] = values[i];
+        return row;
+    }
+
+    private static void add(long[] total, long[] delta) {
+        for (int i = 0; i < total.length; i++) total[i] += delta[i];
+    }
+
+    private String day(Instant instant) {
+        return LocalDate.ofInstant(instant, zone).toString();
+    }
+}
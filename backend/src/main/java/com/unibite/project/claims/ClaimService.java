@@ -2,54 +2,112 @@ package com.unibite.project.claims;
 
 import com.unibite.project.claims.dto.ClaimResponse;
 import com.unibite.project.claims.dto.CreateClaimRequest;
-import com.unibite.project.listings.FoodListing;
-import com.unibite.project.listings.FoodListingRepository;
+import com.unibite.project.common.CollectionVersions;
+import com.unibite.project.common.CursorPage;
+import com.unibite.project.common.Keyset;
+import com.unibite.project.common.KeysetCursor;
+import com.unibite.project.common.QrTokens;
+import com.unibite.project.listings.ActiveListings;
+import com.unibite.project.listings.InventoryLedger;
+import com.unibite.project.listings.ListingEventBroadcaster;
 import com.unibite.project.users.User;
 import com.unibite.project.users.UserRepository;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class ClaimService {
 
     private final ClaimRepository claimRepo;
-    private final FoodListingRepository listingRepo;
+    private final ArchivedClaimRepository archiveRepo;
+    private final ClaimBatchWriter claimWriter;
+    private final InventoryLedger inventory;
+    private final ActiveListings activeListings;
+    private final ListingEventBroadcaster listingEvents;
+    private final CollectionVersions versions;
+    private final RedemptionIndex redemptionIndex;
     private final UserRepository userRepo;
+    private final ClaimMetrics metrics;
+    private final IdempotencyStore idempotency;
+    private final ClaimQuota quota;
+    private final ClaimRollups rollups;
 
-    public ClaimService(ClaimRepository claimRepo, FoodListingRepository listingRepo, UserRepository userRepo) {
+    public ClaimService(ClaimRepository claimRepo, ArchivedClaimRepository archiveRepo,
+                        ClaimBatchWriter claimWriter, InventoryLedger inventory,
+                        ActiveListings activeListings, ListingEventBroadcaster listingEvents,
+                        CollectionVersions versions, RedemptionIndex redemptionIndex, UserRepository userRepo,
+                        ClaimMetrics metrics, IdempotencyStore idempotency, ClaimQuota quota,
+                        ClaimRollups rollups) {
         this.claimRepo = claimRepo;
-        this.listingRepo = listingRepo;
+        this.archiveRepo = archiveRepo;
+        this.claimWriter = claimWriter;
+        this.inventory = inventory;
+        this.activeListings = activeListings;
+        this.listingEvents = listingEvents;
+        this.versions = versions;
+        this.redemptionIndex = redemptionIndex;
         this.userRepo = userRepo;
+        this.metrics = metrics;
+        this.idempotency = idempotency;
+        this.quota = quota;
+        this.rollups = rollups;
     }
 
-    @Transactional
     public ClaimResponse createClaim(CreateClaimRequest req) {
-        if (req.listingId == null) throw new RuntimeException("listingId is required");
-        if (req.studentId == null) throw new RuntimeException("studentId is required");
-        if (req.quantity <= 0) throw new RuntimeException("quantity must be > 0");
+        return place(req, null);
+    }
 
-        FoodListing listing = listingRepo.findById(req.listingId)
-                .orElseThrow(() -> new RuntimeException("Listing not found"));
+    // Retries with the same key get the first attempt's claim instead of a second one
+    public ClaimResponse createClaim(CreateClaimRequest req, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) return place(req, null);
+        if (req.studentId == null) throw invalid("studentId is required");
+        if (idempotencyKey.length() > 255) throw invalid("Idempotency-Key is too long");
 
-        if (listing.getRemainingQuantity() <= 0) {
-            throw new RuntimeException("Listing is sold out");
-        }
+        String fingerprint = req.listingId + "/" + req.quantity;
+        return idempotency.execute(req.studentId, idempotencyKey, fingerprint, () -> {
+            // Keys outlive the in-memory store (restarts, eviction) on the claim row
+            Claim existing = claimRepo.findByStudentIdAndIdempotencyKey(req.studentId, idempotencyKey).orElse(null);
+            if (existing != null) {
+                IdempotencyStore.requireSameRequest(existing.getListingId() + "/" + existing.getQuantity(), fingerprint);
+                return toResponse(existing);
+            }
+            return place(req, idempotencyKey);
+        });
+    }
 
-        if (req.quantity > listing.getPerPersonLimit()) {
-            throw new RuntimeException("Quantity exceeds per-person limit");
-        }
+    private ClaimResponse place(CreateClaimRequest req, String idempotencyKey) {
+        if (req.listingId == null) throw invalid("listingId is required");
+        if (req.studentId == null) throw invalid("studentId is required");
+        if (req.quantity <= 0) throw invalid("quantity must be > 0");
 
-        if (req.quantity > listing.getRemainingQuantity()) {
-            throw new RuntimeException("Not enough quantity remaining");
+        // Checked first, so an over-quota student never reaches the listing
+        Instant requestedAt = Instant.now();
+        if (!quota.tryAcquire(req.studentId, requestedAt)) {
+            metrics.rejectedDailyLimit();
+            throw new RuntimeException("Daily claim limit reached");
         }
 
-        // Decrease remaining quantity
-        listing.setRemainingQuantity(listing.getRemainingQuantity() - req.quantity);
-        listingRepo.save(listing);
+        // Decrease remaining quantity; handed back if the claim insert fails
+        InventoryLedger.Reservation reservation = inventory.reserve(req.listingId, req.quantity);
+        if (!reservation.isReserved()) {
+            quota.release(req.studentId, requestedAt);
+            metrics.rejected(reservation.outcome());
+            throw new RuntimeException(rejectionMessage(reservation.outcome()));
+        }
+        listingEvents.quantityChanged(req.listingId, reservation.remaining());
+        if (reservation.remaining() == 0) {
+            activeListings.refresh(req.listingId);
+            listingEvents.soldOut(req.listingId);
+        }
 
         // Create claim
         Claim claim = new Claim();
@@ -57,33 +115,139 @@ public class ClaimService {
         claim.setStudentId(req.studentId);
         claim.setQuantity(req.quantity);
         claim.setStatus(ClaimStatus.CLAIMED);
-        claim.setQrToken(UUID.randomUUID().toString());
+        claim.setQrToken(QrTokens.newClaimToken());
+        claim.setIdempotencyKey(idempotencyKey);
 
-        Claim saved = claimRepo.save(claim);
+        // Committed together with other concurrent claims
+        Claim saved;
+        try {
+            saved = claimWriter.write(claim);
+        } catch (RuntimeException e) {
+            restore(req.listingId, req.quantity);
+            quota.release(req.studentId, requestedAt);
+            // Lost a race on the unique key: the other attempt's claim is the answer
+            if (idempotencyKey != null) {
+                Claim existing = claimRepo.findByStudentIdAndIdempotencyKey(req.studentId, idempotencyKey).orElse(null);
+                if (existing != null) return toResponse(existing);
+            }
+            throw e;
+        }
+        versions.bump(CollectionVersions.Kind.CLAIMS);
+        redemptionIndex.add(saved);
+        metrics.created();
 
+        return toResponse(saved);
+    }
+
+    private static ClaimResponse toResponse(Claim claim) {
         return new ClaimResponse(
-                saved.getId(),
-                saved.getListingId(),
-                saved.getStudentId(),
-                saved.getQuantity(),
-                saved.getStatus(),
-                saved.getQrToken(),
-                saved.getClaimedAt()
+                claim.getId(),
+                claim.getListingId(),
+                claim.getStudentId(),
+                claim.getQuantity(),
+                claim.getStatus(),
+                claim.getQrToken(),
+                claim.getClaimedAt()
         );
     }
 
+    // History reads span the hot table and claims_archive (see ClaimArchiver);
+    // one read transaction gives both the same snapshot
+    @Transactional(readOnly = true)
     public List<Claim> getClaimsByStudent(Long studentId) {
-        return claimRepo.findByStudentId(studentId);
+        return withArchived(claimRepo.findByStudentId(studentId), archiveRepo.findByStudentId(studentId));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<Claim> getClaimPageByStudent(Long studentId, ClaimStatus status, Instant from, Instant to,
+                                                   String cursor, Integer limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Keyset.limit(limit);
+
+        // Each table is asked for a full page; the newest pageSize + 1 of both decide
+        List<Claim> rows = new ArrayList<>(claimRepo.findBy(studentFilter(studentId, status, from, to, after),
+                query -> query.sortBy(Keyset.newestFirst("claimedAt")).limit(pageSize + 1).all()));
+        if (status != ClaimStatus.CLAIMED) {
+            archiveRepo.findBy(studentFilter(studentId, status, from, to, after),
+                            query -> query.sortBy(Keyset.newestFirst("claimedAt")).limit(pageSize + 1).all())
+                    .forEach(archived -> rows.add(archived.toClaim()));
+            rows.sort(Comparator.comparing(Claim::getClaimedAt).thenComparing(Claim::getId).reversed());
+        }
+
+        return Keyset.page(rows.subList(0, Math.min(rows.size(), pageSize + 1)), pageSize,
+                claim -> new KeysetCursor(claim.getClaimedAt(), claim.getId()));
+    }
+
+    private static <T> Specification<T> studentFilter(Long studentId, ClaimStatus status, Instant from, Instant to,
+                                                      KeysetCursor after) {
+        List<Specification<T>> filters = new ArrayList<>();
+        filters.add((root, query, cb) -> cb.equal(root.get("studentId"), studentId));
+        if (status != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        filters.add(Keyset.within("claimedAt", from, to));
+        filters.add(Keyset.after("claimedAt", after));
+        return Specification.allOf(filters);
+    }
+
+    @Transactional(readOnly = true)
     public List<Claim> getClaimsByListing(Long listingId) {
-        return claimRepo.findByListingId(listingId);
+        return withArchived(claimRepo.findByListingId(listingId), archiveRepo.findByListingId(listingId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Claim> getClaimsByRestaurant(Long restaurantId) {
+        return withArchived(claimRepo.findByRestaurantId(restaurantId), archiveRepo.findByRestaurantId(restaurantId));
+    }
+
+    private static List<Claim> withArchived(List<Claim> hot, List<ArchivedClaim> archived) {
+        if (archived.isEmpty()) return hot;
+
+        List<Claim> all = new ArrayList<>(archived.size() + hot.size());
+        archived.forEach(claim -> all.add(claim.toClaim()));
+        all.addAll(hot);
+        all.sort(Comparator.comparing(Claim::getId));
+        return all;
     }
 
     @Transactional
     public Claim redeemByToken(String qrToken) {
+        // Typed token for an active claim: one keyed update, no lookups
+        Claim active = redemptionIndex.take(qrToken);
+        if (active != null) {
+            Instant now = Instant.now();
+            if (claimRepo.markRedeemed(active.getId(), now) == 1) {
+                rollups.redeemed(active);
+                active.setStatus(ClaimStatus.REDEEMED);
+                active.setRedeemedAt(now);
+                afterCompletion(committed -> {
+                    if (committed) {
+                        versions.bump(CollectionVersions.Kind.CLAIMS);
+                        metrics.redeemed(true);
+                    } else {
+                        active.setStatus(ClaimStatus.CLAIMED);
+                        active.setRedeemedAt(null);
+                        redemptionIndex.add(active);
+                    }
+                });
+                return active;
+            }
+        }
+
+        return redeemByLookup(qrToken);
+    }
+
+    // Legacy untyped tokens, and anything the index doesn't hold (redeemed, canceled, unknown)
+    private Claim redeemByLookup(String qrToken) {
         Claim claim = claimRepo.findByQrToken(qrToken).orElse(null);
 
+        if (claim == null) {
+            archiveRepo.findByQrToken(qrToken).ifPresent(archived -> {
+                throw new RuntimeException(archived.getStatus() == ClaimStatus.REDEEMED
+                        ? "Already redeemed" : "Claim was canceled");
+            });
+        }
+
         // If not a claim token, treat it as user QR token and redeem latest active claim.
         if (claim == null) {
             User user = userRepo.findByQrToken(qrToken)
@@ -96,15 +260,25 @@ public class ClaimService {
         if (claim.getStatus() == ClaimStatus.REDEEMED) {
             throw new RuntimeException("Already redeemed");
         }
+        if (claim.getStatus() == ClaimStatus.CANCELED) {
+            throw new RuntimeException("Claim was canceled");
+        }
 
         claim.setStatus(ClaimStatus.REDEEMED);
         claim.setRedeemedAt(Instant.now());
+        rollups.redeemed(claim);
+        redemptionIndex.remove(claim.getId());
+        afterCommit(() -> {
+            versions.bump(CollectionVersions.Kind.CLAIMS);
+            metrics.redeemed(false);
+        });
         return claimRepo.save(claim);
     }
 
     @Transactional
     public Claim cancelClaim(Long claimId) {
         Claim claim = claimRepo.findById(claimId)
+                .or(() -> archiveRepo.findById(claimId).map(ArchivedClaim::toClaim))
                 .orElseThrow(() -> new RuntimeException("Claim not found"));
 
         if (claim.getStatus() == ClaimStatus.REDEEMED) {
@@ -115,15 +289,58 @@ public class ClaimService {
             throw new RuntimeException("Claim already canceled");
         }
 
-        FoodListing listing = listingRepo.findById(claim.getListingId())
-                .orElseThrow(() -> new RuntimeException("Listing not found"));
+        // Update claim status, then restore quantity once the cancel is durable
+        claim.setStatus(ClaimStatus.CANCELED);
+        Claim saved = claimRepo.save(claim);
+        rollups.canceled(saved);
+        afterCommit(() -> {
+            redemptionIndex.remove(saved.getId());
+            versions.bump(CollectionVersions.Kind.CLAIMS);
+            metrics.canceled();
+            quota.release(saved.getStudentId(), saved.getClaimedAt());
+            restore(saved.getListingId(), saved.getQuantity());
+        });
+        return saved;
+    }
 
-        // Restore quantity
-        listing.setRemainingQuantity(listing.getRemainingQuantity() + claim.getQuantity());
-        listingRepo.save(listing);
+    private void restore(Long listingId, int quantity) {
+        int remaining = inventory.release(listingId, quantity);
+        listingEvents.quantityChanged(listingId, remaining);
+        if (remaining == quantity) {
+            // Was sold out: back into the active feed
+            activeListings.refresh(listingId);
+        }
+    }
 
-        // Update claim status
-        claim.setStatus(ClaimStatus.CANCELED);
-        return claimRepo.save(claim);
+    private RuntimeException invalid(String message) {
+        metrics.rejectedInvalid();
+        return new RuntimeException(message);
+    }
+
+    private String rejectionMessage(InventoryLedger.Outcome outcome) {
+        return switch (outcome) {
+            case NOT_FOUND -> "Listing not found";
+            case SOLD_OUT -> "Listing is sold out";
+            case OVER_LIMIT -> "Quantity exceeds per-person limit";
+            default -> "Not enough quantity remaining";
+        };
+    }
+
+    private void afterCompletion(Consumer<Boolean> action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,108 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.claims.dto.ClaimResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Idempotency-Key -> in-flight or completed claim, scoped per student. A retry
+// that arrives while the first attempt is still running waits for its result
+// instead of reserving again. Only successes are remembered, so a retry after
+// a failure runs again. Entries expire after the TTL, and the oldest are
+// dropped once max-size is exceeded; the key is also stored on the claim row
+// for anything this store has forgotten.
+@Component
+public class IdempotencyStore {
+
+    private record Entry(String fingerprint, CompletableFuture<ClaimResponse> result, long createdAtNanos) {}
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(@Value("${unibite.claims.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${unibite.claims.idempotency.max-size:100000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public ClaimResponse execute(Long studentId, String key, String fingerprint, Supplier<ClaimResponse> action) {
+        String scopedKey = studentId + ":" + key;
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>(), System.nanoTime());
+
+        Entry existing;
+        while ((existing = entries.putIfAbsent(scopedKey, mine)) != null) {
+            if (!isExpired(existing, System.nanoTime())) {
+                return replay(existing, fingerprint);
+            }
+            if (entries.replace(scopedKey, existing, mine)) break;
+        }
+        if (entries.size() > maxSize) evict();
+
+        try {
+            ClaimResponse response = action.get();
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(scopedKey, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.claims.idempotency.sweep-interval:PT1M}")
+    public void sweep() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.result().isDone() && isExpired(entry, now));
+    }
+
+    static void requireSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT,
+                    "Idempotency-Key was already used for a different claim");
+        }
+    }
+
+    private ClaimResponse replay(Entry entry, String fingerprint) {
+        requireSameRequest(entry.fingerprint(), fingerprint);
+        try {
+            return entry.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAtNanos() > ttlNanos;
+    }
+
+    // In-flight entries are never dropped, or their waiters could run twice
+    private synchronized void evict() {
+        int excess = entries.size() - maxSize * 9 / 10;
+        if (excess <= 0) return;
+
+        entries.entrySet().stream()
+                .filter(entry -> entry.getValue().result().isDone())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().createdAtNanos()))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+}
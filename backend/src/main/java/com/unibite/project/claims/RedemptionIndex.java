@@ -0,0 +1,112 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.common.QrTokens;
+import com.unibite.project.users.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Active (CLAIMED) claims by QR token and by student, so a scan resolves to a
+// claim id without touching the database. Maintained on create, cancel and redeem.
+// No-shows older than index-retain are dropped; a late scan of one still
+// redeems through ClaimService's table lookup.
+@Component
+public class RedemptionIndex {
+
+    private final ClaimRepository claimRepo;
+    private final UserRepository userRepo;
+    private final Duration retain;
+
+    private final ConcurrentHashMap<Long, Claim> activeClaims = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> claimIdByToken = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentSkipListSet<Long>> activeByStudent = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> userIdByToken = new ConcurrentHashMap<>();
+
+    public RedemptionIndex(ClaimRepository claimRepo, UserRepository userRepo,
+                           @Value("${unibite.claims.redemption.index-retain:P2D}") Duration retain) {
+        this.claimRepo = claimRepo;
+        this.userRepo = userRepo;
+        this.retain = retain;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        claimRepo.findByStatusAndClaimedAtGreaterThanEqual(ClaimStatus.CLAIMED, Instant.now().minus(retain))
+                .forEach(this::add);
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.claims.redemption.sweep-interval:PT1H}")
+    public void sweep() {
+        sweep(Instant.now().minus(retain));
+    }
+
+    void sweep(Instant claimedBefore) {
+        for (Claim claim : activeClaims.values()) {
+            if (claim.getClaimedAt().isBefore(claimedBefore)) remove(claim.getId());
+        }
+    }
+
+    public int size() {
+        return activeClaims.size();
+    }
+
+    public void add(Claim claim) {
+        activeClaims.put(claim.getId(), claim);
+        claimIdByToken.put(claim.getQrToken(), claim.getId());
+        activeByStudent.compute(claim.getStudentId(), (studentId, ids) -> {
+            if (ids == null) ids = new ConcurrentSkipListSet<>();
+            ids.add(claim.getId());
+            return ids;
+        });
+    }
+
+    // Atomically takes the claim a token points at out of the index; only one
+    // concurrent caller gets it. Null when the token is unknown or not typed.
+    public Claim take(String qrToken) {
+        if (QrTokens.isClaimToken(qrToken)) {
+            Long claimId = claimIdByToken.get(qrToken);
+            return claimId == null ? null : remove(claimId);
+        }
+        if (!QrTokens.isUserToken(qrToken)) return null;
+
+        // User token: the student's latest active claim
+        Long studentId = userIdFor(qrToken);
+        ConcurrentSkipListSet<Long> ids = studentId == null ? null : activeByStudent.get(studentId);
+        while (ids != null && !ids.isEmpty()) {
+            Long latest = ids.pollLast();
+            Claim claim = latest == null ? null : remove(latest);
+            if (claim != null) return claim;
+        }
+        return null;
+    }
+
+    public Claim remove(Long claimId) {
+        Claim claim = activeClaims.remove(claimId);
+        if (claim == null) return null;
+
+        claimIdByToken.remove(claim.getQrToken());
+        activeByStudent.computeIfPresent(claim.getStudentId(), (studentId, ids) -> {
+            ids.remove(claimId);
+            return ids.isEmpty() ? null : ids;
+        });
+        return claim;
+    }
+
+    private Long userIdFor(String userToken) {
+        Long userId = userIdByToken.get(userToken);
+        if (userId != null) return userId;
+
+        return userRepo.findByQrToken(userToken)
+                .map(user -> {
+                    userIdByToken.put(userToken, user.getId());
+                    return user.getId();
+                })
+                .orElse(null);
+    }
+}
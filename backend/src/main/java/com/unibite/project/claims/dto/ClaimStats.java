@@ -0,0 +1,31 @@
+package com.unibite.project.claims.dto;
+
+// Claim counts and meal (portion) totals for one restaurant day or one listing.
+// outstanding = claims neither redeemed nor canceled: no-shows once pickup closes.
+public class ClaimStats {
+    public String day;
+    public Long listingId;
+    public long claims;
+    public long meals;
+    public long redeemedClaims;
+    public long redeemedMeals;
+    public long canceledClaims;
+    public long canceledMeals;
+    public long outstanding;
+    public double noShowRate;
+
+    public ClaimStats(String day, Long listingId, long claims, long meals, long redeemedClaims, long redeemedMeals,
+                      long canceledClaims, long canceledMeals) {
+        this.day = day;
+        this.listingId = listingId;
+        this.claims = claims;
+        this.meals = meals;
+        this.redeemedClaims = redeemedClaims;
+        this.redeemedMeals = redeemedMeals;
+        this.canceledClaims = canceledClaims;
+        this.canceledMeals = canceledMeals;
+        this.outstanding = claims - redeemedClaims - canceledClaims;
+        long kept = claims - canceledClaims;
+        this.noShowRate = kept == 0 ? 0 : (double) outstanding / kept;
+    }
+}
@@ -0,0 +1,37 @@
+package com.unibite.project.common;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One counter per collection, bumped after every committed mutation. Read
+// endpoints derive a strong ETag from it (read the tag before the data) and
+// answer If-None-Match with 304 without querying or serializing anything.
+@Component
+public class CollectionVersions {
+
+    public enum Kind {
+        LISTINGS,
+        CLAIMS
+    }
+
+    private final Map<Kind, AtomicLong> versions = new EnumMap<>(Kind.class);
+
+    public CollectionVersions() {
+        // Seeded from the clock so tags never repeat across restarts
+        long seed = System.currentTimeMillis();
+        for (Kind kind : Kind.values()) {
+            versions.put(kind, new AtomicLong(seed));
+        }
+    }
+
+    public void bump(Kind kind) {
+        versions.get(kind).incrementAndGet();
+    }
+
+    public String etag(Kind kind) {
+        return "\"" + kind.name().toLowerCase() + "-" + versions.get(kind).get() + "\"";
+    }
+}
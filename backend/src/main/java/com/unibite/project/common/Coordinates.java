@@ -0,0 +1,40 @@
+package com.unibite.project.common;
+
+// WGS84 latitude/longitude in degrees, as sent by the clients' map pickers.
+// Distances are great-circle (haversine) on a spherical earth: well within a
+// metre at campus scale.
+public final class Coordinates {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    private Coordinates() {}
+
+    // Both or neither; a lone latitude or longitude is a client bug
+    public static void check(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) return;
+        if (latitude == null || longitude == null) {
+            throw new RuntimeException("latitude and longitude must be given together");
+        }
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+    }
+
+    public static void checkLatitude(double latitude) {
+        if (!(latitude >= -90 && latitude <= 90)) throw new RuntimeException("latitude must be between -90 and 90");
+    }
+
+    public static void checkLongitude(double longitude) {
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new RuntimeException("longitude must be between -180 and 180");
+        }
+    }
+
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.unibite.project.common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal RFC 4180 CSV: comma separated, double-quoted fields may hold commas,
+// quotes ("") and line breaks. Records are read one at a time.
+public final class Csv {
+
+    private Csv() {}
+
+    public static String escape(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    public static final class RecordReader {
+
+        private final Reader in;
+        private int pending = -2;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        // Null at end of input; blank lines are skipped
+        public List<String> next() {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+
+            int c;
+            while ((c = read()) != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                    any = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    any = true;
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r' && peek() == '\n') read();
+                    if (!any && field.isEmpty()) continue;
+                    break;
+                } else {
+                    field.append((char) c);
+                    any = true;
+                }
+            }
+            if (c == -1 && !any && field.isEmpty()) return null;
+
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private int read() {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            try {
+                return in.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int peek() {
+            if (pending == -2) pending = read();
+            return pending;
+        }
+    }
+}
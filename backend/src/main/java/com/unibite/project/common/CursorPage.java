@@ -0,0 +1,13 @@
+package com.unibite.project.common;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    public List<T> items;
+    public String nextCursor; // null on the last page
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
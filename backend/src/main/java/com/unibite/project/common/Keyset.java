@@ -0,0 +1,63 @@
+package com.unibite.project.common;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+// Keyset pagination over (timeField desc, id desc). Each page seeks past the
+// previous page's last row, so deep pages cost the same as the first.
+public final class Keyset {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private Keyset() {}
+
+    public static Sort newestFirst(String timeField) {
+        return Sort.by(Sort.Order.desc(timeField), Sort.Order.desc("id"));
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) return DEFAULT_LIMIT;
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    // Marks an unpaged list response as deprecated, pointing at the feed that replaces it
+    public static ResponseEntity.BodyBuilder unpaged(ResponseEntity.BodyBuilder response, String feed) {
+        return response.header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "<" + feed + ">; rel=\"successor-version\"");
+    }
+
+    public static <T> Specification<T> after(String timeField, KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) return null;
+            // "at <= t" keeps the index range seek; the OR only sorts out rows sharing t.
+            return cb.and(
+                    cb.lessThanOrEqualTo(root.get(timeField), cursor.at()),
+                    cb.or(cb.lessThan(root.get(timeField), cursor.at()),
+                            cb.lessThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    public static <T> Specification<T> within(String timeField, Instant from, Instant to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) return null;
+            if (to == null) return cb.greaterThanOrEqualTo(root.get(timeField), from);
+            if (from == null) return cb.lessThan(root.get(timeField), to);
+            return cb.and(cb.greaterThanOrEqualTo(root.get(timeField), from), cb.lessThan(root.get(timeField), to));
+        };
+    }
+
+    // rows must have been fetched with limit + 1 so we know whether another page exists
+    public static <T> CursorPage<T> page(List<T> rows, int limit, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= limit) return new CursorPage<>(rows, null);
+
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+    }
+}
@@ -0,0 +1,29 @@
+package com.unibite.project.common;
+
+import java.util.UUID;
+
+// QR tokens carry their kind so redemption can dispatch without guessing.
+// Tokens issued before the prefixes existed are plain UUIDs.
+public final class QrTokens {
+
+    public static final String CLAIM_PREFIX = "c_";
+    public static final String USER_PREFIX = "u_";
+
+    private QrTokens() {}
+
+    public static String newClaimToken() {
+        return CLAIM_PREFIX + UUID.randomUUID();
+    }
+
+    public static String newUserToken() {
+        return USER_PREFIX + UUID.randomUUID();
+    }
+
+    public static boolean isClaimToken(String token) {
+        return token.startsWith(CLAIM_PREFIX);
+    }
+
+    public static boolean isUserToken(String token) {
+        return token.startsWith(USER_PREFIX);
+    }
+}
@@ -0,0 +1,22 @@
+package com.unibite.project.common;
+
+import org.sqlite.SQLiteException;
+
+public final class SqliteErrors {
+
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    private SqliteErrors() {}
+
+    // True when the failure was SQLite refusing a lock (after busy_timeout ran out)
+    public static boolean isBusy(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLiteException sqlite) {
+                int primary = sqlite.getResultCode().code & 0xff;
+                return primary == SQLITE_BUSY || primary == SQLITE_LOCKED;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.unibite.project.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Caps how many threads hold a physical connection at once. Waiters park on a
+// fair semaphore, which is cheap for virtual threads, and give up with a 503
+// after max-wait instead of piling up inside the pool. Capping below the
+// carrier count also keeps sqlite-jdbc's synchronized native calls from
+// pinning every carrier thread.
+public class DatabaseAdmissionGate extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Timer waits;
+    private final Counter rejected;
+
+    public DatabaseAdmissionGate(DataSource target, String lane, int permits, Duration maxWait, MeterRegistry registry) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waits = Timer.builder("unibite.db.gate.wait")
+                .tag("lane", lane)
+                .description("Time spent waiting to be admitted to the database")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("unibite.db.gate.rejected").tag("lane", lane).register(registry);
+        Gauge.builder("unibite.db.gate.queued", this.permits, Semaphore::getQueueLength).tag("lane", lane).register(registry);
+        Gauge.builder("unibite.db.gate.in_use", this.permits, semaphore -> permits - semaphore.availablePermits())
+                .tag("lane", lane)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        admit();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        admit();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void admit() throws SQLException {
+        long start = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database", e);
+        }
+        waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!admitted) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Database is busy, try again shortly");
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        if (released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,82 @@
+package com.unibite.project.config;
+
+import com.unibite.project.auth.SessionAuthFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Throttles /api requests per client and route group. Runs after the session
+// filter so signed-in users are keyed by user id; anyone else by address, which
+// is the forwarded client address when a trusted proxy sent the request (see
+// server.forward-headers-strategy). Unknown session tokens never get this far;
+// SessionAuthFilter throttles their lookups by address. CorsConfig's filter runs
+// first, so a 429 still carries CORS headers.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final boolean enabled;
+
+    public RateLimitFilter(RateLimiter limiter, @Value("${unibite.ratelimit.enabled:true}") boolean enabled) {
+        this.limiter = limiter;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Group group = groupOf(request);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiter.acquire(group, clientOf(request));
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    public static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setHeader("Retry-After", Long.toString(seconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests");
+    }
+
+    public static String addressOf(HttpServletRequest request) {
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    // Listing and account writes by restaurants aren't limited
+    private static RateLimiter.Group groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/")) return RateLimiter.Group.AUTH;
+        if (path.startsWith("/api/claims/redeem")) return RateLimiter.Group.REDEEM;
+        if ("GET".equals(request.getMethod())) return RateLimiter.Group.READS;
+        if (path.startsWith("/api/claims")) return RateLimiter.Group.CLAIMS;
+        return null;
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Object userId = request.getAttribute(SessionAuthFilter.USER_ID_ATTRIBUTE);
+        return userId != null ? "user:" + userId : addressOf(request);
+    }
+}
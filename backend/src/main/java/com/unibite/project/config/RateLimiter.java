@@ -0,0 +1,115 @@
+package com.unibite.project.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per route group and client, kept as GCRA: each bucket is one
+// AtomicLong holding the time its tokens are fully spent, so a check is a
+// single compare-and-set with no lock. A bucket whose time has passed is full
+// again and is indistinguishable from a new one, which is what the sweep drops.
+@Component
+public class RateLimiter implements MeterBinder {
+
+    public enum Group {
+        AUTH,
+        CLAIMS,
+        REDEEM,
+        READS
+    }
+
+    public record Limit(double perSecond, int burst) {}
+
+    private static final class Buckets {
+        final long intervalNanos;
+        final long toleranceNanos;
+        final ConcurrentHashMap<String, AtomicLong> byClient = new ConcurrentHashMap<>();
+        final AtomicLong rejected = new AtomicLong();
+
+        Buckets(Limit limit) {
+            this.intervalNanos = (long) (1_000_000_000L / limit.perSecond());
+            this.toleranceNanos = intervalNanos * (limit.burst() - 1);
+        }
+    }
+
+    private final Map<Group, Buckets> groups = new EnumMap<>(Group.class);
+
+    @Autowired
+    public RateLimiter(@Value("${unibite.ratelimit.auth.per-second:5}") double authRate,
+                       @Value("${unibite.ratelimit.auth.burst:10}") int authBurst,
+                       @Value("${unibite.ratelimit.claims.per-second:5}") double claimsRate,
+                       @Value("${unibite.ratelimit.claims.burst:10}") int claimsBurst,
+                       @Value("${unibite.ratelimit.redeem.per-second:20}") double redeemRate,
+                       @Value("${unibite.ratelimit.redeem.burst:40}") int redeemBurst,
+                       @Value("${unibite.ratelimit.reads.per-second:50}") double readsRate,
+                       @Value("${unibite.ratelimit.reads.burst:100}") int readsBurst) {
+        this(Map.of(Group.AUTH, new Limit(authRate, authBurst),
+                Group.CLAIMS, new Limit(claimsRate, claimsBurst),
+                Group.REDEEM, new Limit(redeemRate, redeemBurst),
+                Group.READS, new Limit(readsRate, readsBurst)));
+    }
+
+    RateLimiter(Map<Group, Limit> limits) {
+        limits.forEach((group, limit) -> groups.put(group, new Buckets(limit)));
+    }
+
+    // 0 when the request may go ahead, otherwise nanoseconds until it would
+    public long acquire(Group group, String client) {
+        return acquire(group, client, System.nanoTime());
+    }
+
+    long acquire(Group group, String client, long now) {
+        Buckets buckets = groups.get(group);
+        AtomicLong spentUntil = buckets.byClient.computeIfAbsent(client, key -> new AtomicLong(now));
+
+        while (true) {
+            long current = spentUntil.get();
+            long start = Math.max(current, now);
+            long wait = start - buckets.toleranceNanos - now;
+            if (wait > 0) {
+                buckets.rejected.incrementAndGet();
+                return wait;
+            }
+            if (spentUntil.compareAndSet(current, start + buckets.intervalNanos)) return 0;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Buckets buckets : groups.values()) size += buckets.byClient.size();
+        return size;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unibite.ratelimit.buckets", this, RateLimiter::size).register(registry);
+        groups.forEach((group, buckets) ->
+                FunctionCounter.builder("unibite.ratelimit.rejected", buckets.rejected, AtomicLong::get)
+                        .tag("group", group.name().toLowerCase(Locale.ROOT))
+                        .register(registry));
+    }
+
+    // A request racing the sweep may land in a dropped bucket; that only ever
+    // lets one extra request through
+    @Scheduled(fixedDelayString = "${unibite.ratelimit.sweep-interval:PT1M}")
+    public void sweep() {
+        sweep(System.nanoTime());
+    }
+
+    void sweep(long now) {
+        for (Buckets buckets : groups.values()) {
+            buckets.byClient.values().removeIf(spentUntil -> spentUntil.get() <= now);
+        }
+    }
+}
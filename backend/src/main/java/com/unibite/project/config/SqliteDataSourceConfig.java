@@ -0,0 +1,116 @@
+package com.unibite.project.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Properties;
+
+// SQLite allows one writer at a time, so instead of letting pooled connections
+// fight over the write lock, all read-write work goes through a single writer
+// connection and readOnly transactions get their own pool. WAL lets those
+// readers run while the writer commits.
+@Configuration
+public class SqliteDataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String driverClassName;
+
+    @Value("${unibite.sqlite.profile:BALANCED}")
+    private SqlitePragmaProfile profile;
+
+    @Value("${unibite.sqlite.synchronous:#{null}}")
+    private String synchronous;
+
+    @Value("${unibite.sqlite.cache-size:#{null}}")
+    private Integer cacheSize;
+
+    @Value("${unibite.sqlite.mmap-size:#{null}}")
+    private Long mmapSize;
+
+    @Value("${unibite.sqlite.busy-timeout-ms:#{null}}")
+    private Integer busyTimeoutMs;
+
+    @Value("${unibite.sqlite.reader-pool-size:8}")
+    private int readerPoolSize;
+
+    // 0 = one permit per reader connection
+    @Value("${unibite.db.gate.read-permits:0}")
+    private int readPermits;
+
+    @Value("${unibite.db.gate.max-wait-ms:10000}")
+    private long gateMaxWaitMs;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqliteDataSourceConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource writerDataSource() {
+        HikariConfig config = baseConfig("sqlite-writer");
+        config.setMaximumPoolSize(1);
+        return new HikariDataSource(config);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readerDataSource() {
+        HikariConfig config = baseConfig("sqlite-reader");
+        config.setMaximumPoolSize(readerPoolSize);
+        // xerial can't flip an open connection to read-only, so enforce it in SQLite itself
+        config.setConnectionInitSql("PRAGMA query_only = true");
+        return new HikariDataSource(config);
+    }
+
+    // Connections are fetched lazily, once the transaction's readOnly flag is known,
+    // and only after the admission gate for that lane lets the caller in.
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writerDataSource") DataSource writer,
+                                 @Qualifier("readerDataSource") DataSource reader) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Duration maxWait = Duration.ofMillis(gateMaxWaitMs);
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new DatabaseAdmissionGate(writer, "write", 1, maxWait, registry));
+        proxy.setReadOnlyDataSource(new DatabaseAdmissionGate(reader, "read",
+                readPermits > 0 ? readPermits : readerPoolSize, maxWait, registry));
+        return proxy;
+    }
+
+    private HikariConfig baseConfig(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setDriverClassName(driverClassName);
+        config.setDataSourceProperties(pragmas());
+        // hikaricp.* meters (acquire wait, pending, usage); must be set before the pool starts
+        meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return config;
+    }
+
+    private Properties pragmas() {
+        Properties pragmas = new Properties();
+        pragmas.setProperty("journal_mode", "WAL");
+        pragmas.setProperty("synchronous", synchronous != null ? synchronous : profile.synchronous);
+        pragmas.setProperty("cache_size", String.valueOf(cacheSize != null ? cacheSize : profile.cacheSize));
+        pragmas.setProperty("mmap_size", String.valueOf(mmapSize != null ? mmapSize : profile.mmapSize));
+        pragmas.setProperty("busy_timeout", String.valueOf(busyTimeoutMs != null ? busyTimeoutMs : profile.busyTimeoutMs));
+        return pragmas;
+    }
+}
@@ -0,0 +1,25 @@
+package com.unibite.project.config;
+
+// Connection pragma presets, selected with unibite.sqlite.profile. Every value
+// can still be overridden individually (unibite.sqlite.synchronous, ...).
+public enum SqlitePragmaProfile {
+
+    // fsync on every commit; smallest memory footprint
+    DURABLE("FULL", -16_000, 0, 5_000),
+    // WAL + NORMAL only risks the last commits on power loss, never corruption
+    BALANCED("NORMAL", -32_000, 128L * 1024 * 1024, 5_000),
+    // load testing / disposable databases only
+    THROUGHPUT("OFF", -64_000, 256L * 1024 * 1024, 10_000);
+
+    final String synchronous;
+    final int cacheSize; // negative = KiB, per SQLite
+    final long mmapSize;
+    final int busyTimeoutMs;
+
+    SqlitePragmaProfile(String synchronous, int cacheSize, long mmapSize, int busyTimeoutMs) {
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+}
@@ -14,7 +14,16 @@ public class SqliteSchemaBootstrap {
     }
 
     @PostConstruct
-    public void ensureUsersSchema() {
+    public void ensureSchema() {
+        ensureUsersSchema();
+        ensureSessionsSchema();
+        ensureListingsSchema();
+        ensureClaimsSchema();
+        ensureStatsSchema();
+        ensureSearchSchema();
+    }
+
+    private void ensureUsersSchema() {
         Boolean hasQrToken = jdbcTemplate.query(
                 "PRAGMA table_info(users)",
                 rs -> {
@@ -33,4 +42,79 @@ public class SqliteSchemaBootstrap {
 
         jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_users_qr_token ON users(qr_token)");
     }
+
+    private void ensureSessionsSchema() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_sessions_expires_at ON sessions(expires_at)");
+    }
+
+    private void ensureListingsSchema() {
+        // Keyset feeds walk these in (created_at desc, id desc) order
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_food_listings_created ON food_listings(created_at, id)");
+        // Dashboard looks listings up by restaurant_id; the trailing (created_at, id)
+        // keeps each restaurant's listings in creation order, which the restaurant feed seeks on
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_food_listings_restaurant_created "
+                + "ON food_listings(restaurant_id, created_at, id)");
+        // Cold-start rebuild of the active set only ever reads in-stock rows
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_food_listings_active "
+                + "ON food_listings(available_until) WHERE remaining_quantity > 0");
+    }
+
+    private void ensureClaimsSchema() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_claims_listing ON claims(listing_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_claims_student_claimed "
+                + "ON claims(student_id, claimed_at, id)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_claims_idempotency "
+                + "ON claims(student_id, idempotency_key) WHERE idempotency_key IS NOT NULL");
+        // History reads that fall through to archived claims
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_claims_archive_listing ON claims_archive(listing_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_claims_archive_student_claimed "
+                + "ON claims_archive(student_id, claimed_at, id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_claims_archive_qr_token ON claims_archive(qr_token)");
+    }
+
+    // Full-text index over listing text for ListingSearch. External content:
+    // FTS5 keeps only the index and reads text from food_listings. Triggers keep
+    // it in step with every writer (JPA, bulk import); stock updates don't touch
+    // the indexed columns and so never fire the update trigger.
+    private void ensureSearchSchema() {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'food_listings_fts'", Integer.class);
+
+        jdbcTemplate.execute("CREATE VIRTUAL TABLE IF NOT EXISTS food_listings_fts USING fts5("
+                + "title, description, pickup_location, content = 'food_listings', content_rowid = 'id', "
+                + "tokenize = 'porter unicode61 remove_diacritics 2', prefix = '2 3')");
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS food_listings_fts_insert AFTER INSERT ON food_listings BEGIN "
+                + "INSERT INTO food_listings_fts (rowid, title, description, pickup_location) "
+                + "VALUES (new.id, new.title, new.description, new.pickup_location); END");
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS food_listings_fts_delete AFTER DELETE ON food_listings BEGIN "
+                + "INSERT INTO food_listings_fts (food_listings_fts, rowid, title, description, pickup_location) "
+                + "VALUES ('delete', old.id, old.title, old.description, old.pickup_location); END");
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS food_listings_fts_update "
+                + "AFTER UPDATE OF title, description, pickup_location ON food_listings BEGIN "
+                + "INSERT INTO food_listings_fts (food_listings_fts, rowid, title, description, pickup_location) "
+                + "VALUES ('delete', old.id, old.title, old.description, old.pickup_location); "
+                + "INSERT INTO food_listings_fts (rowid, title, description, pickup_location) "
+                + "VALUES (new.id, new.title, new.description, new.pickup_location); END");
+
+        if (exists == 0) {
+            // Index whatever was listed before search existed
+            jdbcTemplate.execute("INSERT INTO food_listings_fts (food_listings_fts) VALUES ('rebuild')");
+        }
+    }
+
+    // Rollups maintained by ClaimRollups; day is an ISO date in unibite.stats.zone
+    private void ensureStatsSchema() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS restaurant_daily_stats ("
+                + "restaurant_id bigint NOT NULL, day varchar(10) NOT NULL, "
+                + "claims integer NOT NULL DEFAULT 0, meals integer NOT NULL DEFAULT 0, "
+                + "redeemed_claims integer NOT NULL DEFAULT 0, redeemed_meals integer NOT NULL DEFAULT 0, "
+                + "canceled_claims integer NOT NULL DEFAULT 0, canceled_meals integer NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (restaurant_id, day)) WITHOUT ROWID");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS listing_stats ("
+                + "listing_id bigint PRIMARY KEY, restaurant_id bigint NOT NULL, "
+                + "claims integer NOT NULL DEFAULT 0, meals integer NOT NULL DEFAULT 0, "
+                + "redeemed_claims integer NOT NULL DEFAULT 0, redeemed_meals integer NOT NULL DEFAULT 0, "
+                + "canceled_claims integer NOT NULL DEFAULT 0, canceled_meals integer NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_listing_stats_restaurant ON listing_stats(restaurant_id)");
+    }
 }
@@ -0,0 +1,54 @@
+package com.unibite.project.exports;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // Reporting: full claim history (archived included) as CSV or NDJSON, gzipped when the client accepts it
+    @GetMapping("/claims")
+    public ResponseEntity<StreamingResponseBody> claims(@RequestParam(required = false) Long restaurantId,
+                                                        @RequestParam(required = false) Instant from,
+                                                        @RequestParam(required = false) Instant to,
+                                                        @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return download("claims", format, gzip, exportService.claims(restaurantId, from, to, format, gzip));
+    }
+
+    @GetMapping("/listings")
+    public ResponseEntity<StreamingResponseBody> listings(@RequestParam(required = false) Long restaurantId,
+                                                          @RequestParam(required = false) Instant from,
+                                                          @RequestParam(required = false) Instant to,
+                                                          @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        return download("listings", format, gzip, exportService.listings(restaurantId, from, to, format, gzip));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip,
+                                                                 StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.extension + "\"");
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+}
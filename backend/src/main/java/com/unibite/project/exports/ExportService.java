@@ -0,0 +1,262 @@
+package com.unibite.project.exports;
+
+import com.unibite.project.common.Csv;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+// Claim and listing exports for reporting. Rows go from a forward-only JDBC
+// cursor on a reader connection straight to the response, one at a time, so
+// memory stays flat however long the history is. Each download keeps its
+// reader connection and read transaction until the last row is written, so
+// only max-concurrent exports run at once; the rest are turned away with 503.
+@Service
+public class ExportService {
+
+    private enum Type { NUMBER, DECIMAL, TEXT, INSTANT, FLAG }
+
+    private record Column(String name, Type type) {}
+
+    private static final List<Column> CLAIM_COLUMNS = List.of(
+            new Column("id", Type.NUMBER), new Column("listingId", Type.NUMBER),
+            new Column("restaurantId", Type.NUMBER), new Column("studentId", Type.NUMBER),
+            new Column("quantity", Type.NUMBER), new Column("status", Type.TEXT),
+            new Column("claimedAt", Type.INSTANT), new Column("redeemedAt", Type.INSTANT),
+            new Column("archived", Type.FLAG));
+
+    // Same header names the listing import reads; it skips id, remainingQuantity
+    // and createdAt, so an export can be re-imported as is
+    private static final List<Column> LISTING_COLUMNS = List.of(
+            new Column("id", Type.NUMBER), new Column("restaurantId", Type.NUMBER),
+            new Column("title", Type.TEXT), new Column("description", Type.TEXT),
+            new Column("totalQuantity", Type.NUMBER), new Column("remainingQuantity", Type.NUMBER),
+            new Column("perPersonLimit", Type.NUMBER), new Column("pickupLocation", Type.TEXT),
+            new Column("latitude", Type.DECIMAL), new Column("longitude", Type.DECIMAL),
+            new Column("availableUntil", Type.INSTANT), new Column("createdAt", Type.INSTANT));
+
+    private static final String CLAIM_SELECT = "SELECT c.id, c.listing_id, l.restaurant_id, c.student_id, c.quantity, "
+            + "c.status, c.claimed_at, c.redeemed_at, %d FROM %s c JOIN food_listings l ON l.id = c.listing_id";
+
+    private static final String LISTING_SELECT = "SELECT id, restaurant_id, title, description, total_quantity, "
+            + "remaining_quantity, per_person_limit, pickup_location, latitude, longitude, available_until, created_at "
+            + "FROM food_listings l";
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final JsonMapper mapper;
+    private final Semaphore running;
+
+    public ExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, JsonMapper mapper,
+                         @Value("${unibite.exports.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.mapper = mapper;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    // Hot and archived claims, unordered: sorting would make SQLite buffer the lot
+    public StreamingResponseBody claims(Long restaurantId, Instant from, Instant to, ExportFormat format,
+                                        boolean gzip) {
+        List<Object> args = new ArrayList<>();
+        String where = filters("c.claimed_at", restaurantId, from, to, args);
+        List<Object> unionArgs = new ArrayList<>(args);
+        unionArgs.addAll(args);
+        String sql = String.format(CLAIM_SELECT, 0, "claims") + where
+                + " UNION ALL " + String.format(CLAIM_SELECT, 1, "claims_archive") + where;
+        return stream(sql, unionArgs, CLAIM_COLUMNS, format, gzip);
+    }
+
+    public StreamingResponseBody listings(Long restaurantId, Instant from, Instant to, ExportFormat format,
+                                          boolean gzip) {
+        List<Object> args = new ArrayList<>();
+        String sql = LISTING_SELECT + filters("l.created_at", restaurantId, from, to, args) + " ORDER BY l.id";
+        return stream(sql, args, LISTING_COLUMNS, format, gzip);
+    }
+
+    // Same bounds as the keyset feeds: from inclusive, to exclusive
+    private static String filters(String timeColumn, Long restaurantId, Instant from, Instant to, List<Object> args) {
+        List<String> clauses = new ArrayList<>();
+        if (restaurantId != null) {
+            clauses.add("l.restaurant_id = ?");
+            args.add(restaurantId);
+        }
+        if (from != null) {
+            clauses.add(timeColumn + " >= ?");
+            args.add(from.toEpochMilli());
+        }
+        if (to != null) {
+            clauses.add(timeColumn + " < ?");
+            args.add(to.toEpochMilli());
+        }
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    private StreamingResponseBody stream(String sql, List<Object> args, List<Column> columns, ExportFormat format,
+                                         boolean gzip) {
+        // Taken on the request thread so the 503 goes out before the response is committed
+        if (!running.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports running, try again shortly");
+        }
+        Slot slot = new Slot();
+        slot.releaseIfAbandoned();
+        return out -> {
+            if (!slot.start()) return;
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+                RowSink sink = format == ExportFormat.CSV ? new CsvSink(target, columns) : new NdjsonSink(target, columns);
+                readOnly.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                    PreparedStatement statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(FETCH_SIZE);
+                    for (int i = 0; i < args.size(); i++) statement.setObject(i + 1, args.get(i));
+                    return statement;
+                }, (RowCallbackHandler) rs -> sink.write(rs)));
+                sink.finish();
+                if (gzip) ((GZIPOutputStream) target).finish();
+            } finally {
+                running.release();
+            }
+        };
+    }
+
+    // The permit taken for one export. A body that runs releases it when done;
+    // if the async request ends first (timeout, client gone, error) without the
+    // body having started, the completion releases it and the body never runs.
+    private final class Slot implements CallableProcessingInterceptor {
+        private static final int PENDING = 0, STARTED = 1, ABANDONED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        boolean start() {
+            return state.compareAndSet(PENDING, STARTED);
+        }
+
+        void releaseIfAbandoned() {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(this, this);
+            }
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            if (state.compareAndSet(PENDING, ABANDONED)) running.release();
+        }
+    }
+
+    private static Object value(ResultSet rs, int index, Type type) throws SQLException {
+        Object raw = rs.getObject(index);
+        if (raw == null) return null;
+        return switch (type) {
+            case NUMBER -> rs.getLong(index);
+            case DECIMAL -> rs.getDouble(index);
+            case TEXT -> rs.getString(index);
+            case INSTANT -> Instant.ofEpochMilli(rs.getLong(index)).toString();
+            case FLAG -> rs.getInt(index) != 0;
+        };
+    }
+
+    private interface RowSink {
+        void write(ResultSet rs) throws SQLException;
+
+        void finish();
+    }
+
+    private static final class CsvSink implements RowSink {
+        private final Writer writer;
+        private final List<Column> columns;
+
+        CsvSink(OutputStream out, List<Column> columns) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.columns = columns;
+            write(String.join(",", columns.stream().map(Column::name).toList()));
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) line.append(',');
+                line.append(Csv.escape(value(rs, i + 1, columns.get(i).type())));
+            }
+            write(line.toString());
+        }
+
+        private void write(String line) {
+            try {
+                writer.write(line);
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private final class NdjsonSink implements RowSink {
+        private final JsonGenerator generator;
+        private final List<Column> columns;
+
+        NdjsonSink(OutputStream out, List<Column> columns) {
+            // Lines are ended by hand; no separator in front of each root value
+            this.generator = mapper.writer().withRootValueSeparator((String) null).createGenerator(out);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeName(columns.get(i).name());
+                generator.writePOJO(value(rs, i + 1, columns.get(i).type()));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.common.CollectionVersions;
+import com.unibite.project.common.Coordinates;
+import com.unibite.project.listings.dto.NearbyListing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+
+// Live set of claimable listings (stock left, not past availableUntil), newest
+// first. Rebuilt from the partial index on startup, then kept current by
+// create, sell-out, restock and a per-listing expiry task. Located listings are
+// also kept in a GeoGrid for the "near me" and map-viewport queries. Sold-out
+// listings are parked for a cancel to bring back, but only for sold-out.retain.
+@Component
+public class ActiveListings implements MeterBinder {
+
+    private record SoldOut(FoodListing listing, Instant since) {}
+
+    private final FoodListingRepository listingRepo;
+    private final InventoryLedger inventory;
+    private final TaskScheduler scheduler;
+    private final ListingEventBroadcaster events;
+    private final CollectionVersions versions;
+    private final Duration soldOutRetention;
+
+    private final ConcurrentSkipListMap<Long, FoodListing> active = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+    private final ConcurrentHashMap<Long, SoldOut> soldOut = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ScheduledFuture<?>> expiries = new ConcurrentHashMap<>();
+    private final GeoGrid grid;
+
+    public ActiveListings(FoodListingRepository listingRepo, InventoryLedger inventory, TaskScheduler scheduler,
+                          ListingEventBroadcaster events, CollectionVersions versions,
+                          @Value("${unibite.listings.geo.cell-meters:250}") double cellMeters,
+                          @Value("${unibite.listings.sold-out.retain:PT6H}") Duration soldOutRetention) {
+        this.listingRepo = listingRepo;
+        this.inventory = inventory;
+        this.scheduler = scheduler;
+        this.events = events;
+        this.versions = versions;
+        this.grid = new GeoGrid(cellMeters);
+        this.soldOutRetention = soldOutRetention;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        listingRepo.findActive(Instant.now()).forEach(this::add);
+    }
+
+    // Synchronized with refresh so a sell-out racing this add can't leave the
+    // listing in the set or the grid; the stock is re-checked under the monitor.
+    public synchronized void add(FoodListing listing) {
+        if (isExpired(listing) || inventory.overlay(listing).getRemainingQuantity() <= 0) return;
+
+        active.put(listing.getId(), listing);
+        grid.put(listing);
+        if (listing.getAvailableUntil() != null) {
+            expiries.computeIfAbsent(listing.getId(),
+                    id -> scheduler.schedule(() -> expire(id), listing.getAvailableUntil()));
+        }
+    }
+
+    // Called when a listing's stock crosses zero in either direction.
+    public void refresh(Long listingId) {
+        if (!refreshHeld(listingId)) {
+            // Back in stock but swept from memory: read the row without holding
+            // the monitor; add re-checks the stock in case it sold out meanwhile
+            listingRepo.findById(listingId).ifPresent(this::add);
+        }
+    }
+
+    // False when the listing is back in stock but neither listed nor parked
+    private synchronized boolean refreshHeld(Long listingId) {
+        if (inventory.remaining(listingId) > 0) {
+            SoldOut parked = soldOut.remove(listingId);
+            if (parked != null) add(parked.listing());
+            return parked != null || active.containsKey(listingId);
+        }
+        FoodListing listing = active.remove(listingId);
+        if (listing != null) soldOut.put(listingId, new SoldOut(listing, Instant.now()));
+        grid.remove(listingId);
+        return true;
+    }
+
+    public List<FoodListing> feed() {
+        return inventory.overlay(new ArrayList<>(active.values()));
+    }
+
+    // Claimable listings within radiusMeters of the point, nearest first
+    public List<NearbyListing> near(double latitude, double longitude, double radiusMeters, int limit) {
+        Coordinates.checkLatitude(latitude);
+        Coordinates.checkLongitude(longitude);
+        if (!(radiusMeters > 0)) throw new RuntimeException("radius must be > 0");
+        return located(grid.near(latitude, longitude, radiusMeters, limit));
+    }
+
+    // Claimable listings inside a map viewport, nearest its centre first
+    public List<NearbyListing> within(double south, double west, double north, double east, int limit) {
+        Coordinates.checkLatitude(south);
+        Coordinates.checkLatitude(north);
+        Coordinates.checkLongitude(west);
+        Coordinates.checkLongitude(east);
+        if (south > north) throw new RuntimeException("south must be <= north");
+        if (west > east) throw new RuntimeException("west must be <= east");
+        return located(grid.within(south, west, north, east, limit));
+    }
+
+    public int size() {
+        return active.size();
+    }
+
+    public boolean contains(Long listingId) {
+        return active.containsKey(listingId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unibite.listings.active", active, Map::size).register(registry);
+        Gauge.builder("unibite.listings.sold_out", soldOut, Map::size)
+                .description("Sold-out listings that would return to the feed on a cancel")
+                .register(registry);
+        Gauge.builder("unibite.listings.located", grid, GeoGrid::size)
+                .description("Active listings with coordinates, in the proximity grid")
+                .register(registry);
+    }
+
+    // Long sold-out listings, with their expiry task and ledger stock, leave
+    // memory; a later cancel reloads the row in refresh() and schedules the
+    // expiry again.
+    @Scheduled(fixedDelayString = "${unibite.listings.sold-out.sweep-interval:PT10M}")
+    public synchronized void sweep() {
+        Instant cutoff = Instant.now().minus(soldOutRetention);
+        soldOut.entrySet().removeIf(entry -> {
+            if (entry.getValue().since().isAfter(cutoff)) return false;
+            ScheduledFuture<?> expiry = expiries.remove(entry.getKey());
+            if (expiry != null) expiry.cancel(false);
+            inventory.retire(entry.getKey());
+            return true;
+        });
+    }
+
+    synchronized void expire(Long listingId) {
+        expiries.remove(listingId);
+        boolean wasListed = active.remove(listingId) != null;
+        grid.remove(listingId);
+        inventory.retire(listingId);
+        if (soldOut.remove(listingId) != null || wasListed) {
+            // Nothing else is written on expiry, so the listings ETag has to move here
+            versions.bump(CollectionVersions.Kind.LISTINGS);
+            events.expired(listingId);
+        }
+    }
+
+    private List<NearbyListing> located(List<GeoGrid.Hit> hits) {
+        List<NearbyListing> nearby = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit hit : hits) {
+            nearby.add(new NearbyListing(inventory.overlay(hit.listing()), (int) Math.round(hit.distanceMeters())));
+        }
+        return nearby;
+    }
+
+    private boolean isExpired(FoodListing listing) {
+        return listing.getAvailableUntil() != null && !listing.getAvailableUntil().isAfter(Instant.now());
+    }
+}
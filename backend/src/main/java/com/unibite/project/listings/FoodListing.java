@@ -30,6 +30,10 @@ public class FoodListing {
 
     private String pickupLocation;
 
+    // WGS84 degrees; null when neither the listing nor its restaurant has a map pin
+    private Double latitude;
+    private Double longitude;
+
     private Instant availableUntil;
 
     private Instant createdAt = Instant.now();
@@ -37,6 +41,7 @@ public class FoodListing {
     public FoodListing() {}
 
     public Long getId() { return id; }
+    void setId(Long id) { this.id = id; }
 
     public Long getRestaurantId() { return restaurantId; }
     public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
@@ -59,6 +64,12 @@ public class FoodListing {
     public String getPickupLocation() { return pickupLocation; }
     public void setPickupLocation(String pickupLocation) { this.pickupLocation = pickupLocation; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public Instant getAvailableUntil() { return availableUntil; }
     public void setAvailableUntil(Instant availableUntil) { this.availableUntil = availableUntil; }
 
@@ -1,7 +1,18 @@
 package com.unibite.project.listings;
 
+import com.unibite.project.common.CollectionVersions;
+import com.unibite.project.common.CursorPage;
+import com.unibite.project.common.Keyset;
+import com.unibite.project.listings.dto.ImportResult;
+import com.unibite.project.listings.dto.NearbyListing;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -9,9 +20,18 @@ import java.util.List;
 public class FoodListingController {
 
     private final FoodListingService listingService;
+    private final ListingImporter importer;
+    private final ListingSearch search;
+    private final ListingEventBroadcaster events;
+    private final CollectionVersions versions;
 
-    public FoodListingController(FoodListingService listingService) {
+    public FoodListingController(FoodListingService listingService, ListingImporter importer, ListingSearch search,
+                                 ListingEventBroadcaster events, CollectionVersions versions) {
         this.listingService = listingService;
+        this.importer = importer;
+        this.search = search;
+        this.events = events;
+        this.versions = versions;
     }
 
     @PostMapping
@@ -19,13 +39,93 @@ public class FoodListingController {
         return listingService.create(listing);
     }
 
+    // A day's surplus at once: JSON array or CSV with a header row; one result per row
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ImportResult importJson(InputStream body) {
+        return importer.importJson(body);
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ImportResult importCsv(InputStream body) {
+        return importer.importCsv(body);
+    }
+
+    // Deprecated in favour of /feed; still complete until the SPA pages through the feeds
     @GetMapping
-    public List<FoodListing> getAll() {
-        return listingService.getAll();
+    public ResponseEntity<List<FoodListing>> getAll(WebRequest request) {
+        String etag = versions.etag(CollectionVersions.Kind.LISTINGS);
+        if (request.checkNotModified(etag)) return null;
+        return Keyset.unpaged(ResponseEntity.ok().eTag(etag), "/api/listings/feed")
+                .body(listingService.getAll());
     }
 
+    // Student feed: only listings that can still be claimed, served from memory
+    @GetMapping("/active")
+    public ResponseEntity<List<FoodListing>> getActive(WebRequest request) {
+        String etag = versions.etag(CollectionVersions.Kind.LISTINGS);
+        if (request.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().eTag(etag).body(listingService.getActive());
+    }
+
+    // Live CREATED / QUANTITY_CHANGED / SOLD_OUT / EXPIRED events; reconnects resume via Last-Event-ID
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return events.subscribe(lastEventId);
+    }
+
+    // Deprecated in favour of /restaurant/{restaurantId}/feed, like getAll
     @GetMapping("/restaurant/{restaurantId}")
-    public List<FoodListing> getByRestaurant(@PathVariable Long restaurantId) {
-        return listingService.getByRestaurant(restaurantId);
+    public ResponseEntity<List<FoodListing>> getByRestaurant(@PathVariable Long restaurantId, WebRequest request) {
+        String etag = versions.etag(CollectionVersions.Kind.LISTINGS);
+        if (request.checkNotModified(etag)) return null;
+        return Keyset.unpaged(ResponseEntity.ok().eTag(etag), "/api/listings/restaurant/" + restaurantId + "/feed")
+                .body(listingService.getByRestaurant(restaurantId));
+    }
+
+    // Claimable listings within radius metres of the student, nearest first
+    @GetMapping("/near")
+    public List<NearbyListing> near(@RequestParam double lat,
+                                    @RequestParam double lng,
+                                    @RequestParam(defaultValue = "500") double radius,
+                                    @RequestParam(required = false) Integer limit) {
+        return listingService.getNear(lat, lng, radius, limit);
+    }
+
+    // Claimable listings inside a map viewport, nearest its centre first
+    @GetMapping("/within")
+    public List<NearbyListing> within(@RequestParam double south,
+                                      @RequestParam double west,
+                                      @RequestParam double north,
+                                      @RequestParam double east,
+                                      @RequestParam(required = false) Integer limit) {
+        return listingService.getWithin(south, west, north, east, limit);
+    }
+
+    // Full-text search over title, description and pickup location, best match first
+    @GetMapping("/search")
+    public List<FoodListing> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "true") boolean active,
+                                    @RequestParam(required = false) Integer limit) {
+        return search.search(q, active, limit);
+    }
+
+    // Newest first, one page at a time; pass nextCursor back as ?cursor=
+    @GetMapping("/feed")
+    public CursorPage<FoodListing> feed(@RequestParam(required = false) ListingStatus status,
+                                        @RequestParam(required = false) Instant from,
+                                        @RequestParam(required = false) Instant to,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit) {
+        return listingService.getPage(null, status, from, to, cursor, limit);
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/feed")
+    public CursorPage<FoodListing> restaurantFeed(@PathVariable Long restaurantId,
+                                                  @RequestParam(required = false) ListingStatus status,
+                                                  @RequestParam(required = false) Instant from,
+                                                  @RequestParam(required = false) Instant to,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        return listingService.getPage(restaurantId, status, from, to, cursor, limit);
     }
 }
\ No newline at end of file
@@ -1,8 +1,20 @@
 package com.unibite.project.listings;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
 import java.util.List;
 
-public interface FoodListingRepository extends JpaRepository<FoodListing, Long> {
+@Transactional(readOnly = true)
+public interface FoodListingRepository extends JpaRepository<FoodListing, Long>, JpaSpecificationExecutor<FoodListing> {
     List<FoodListing> findByRestaurantId(Long restaurantId);
+
+    // Served by the partial index idx_food_listings_active
+    @Query("select l from FoodListing l where l.remainingQuantity > 0 "
+            + "and (l.availableUntil is null or l.availableUntil > :now) order by l.id")
+    List<FoodListing> findActive(@Param("now") Instant now);
 }
\ No newline at end of file
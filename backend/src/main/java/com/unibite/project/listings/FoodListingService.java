@@ -1,19 +1,52 @@
 package com.unibite.project.listings;
 
+import com.unibite.project.common.CollectionVersions;
+import com.unibite.project.common.Coordinates;
+import com.unibite.project.common.CursorPage;
+import com.unibite.project.common.Keyset;
+import com.unibite.project.common.KeysetCursor;
+import com.unibite.project.listings.dto.NearbyListing;
+import com.unibite.project.users.UserRepository;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class FoodListingService {
 
     private final FoodListingRepository listingRepo;
+    private final InventoryLedger inventory;
+    private final ActiveListings activeListings;
+    private final ListingEventBroadcaster events;
+    private final CollectionVersions versions;
+    private final UserRepository userRepo;
 
-    public FoodListingService(FoodListingRepository listingRepo) {
+    public FoodListingService(FoodListingRepository listingRepo, InventoryLedger inventory,
+                              ActiveListings activeListings, ListingEventBroadcaster events,
+                              CollectionVersions versions, UserRepository userRepo) {
         this.listingRepo = listingRepo;
+        this.inventory = inventory;
+        this.activeListings = activeListings;
+        this.events = events;
+        this.versions = versions;
+        this.userRepo = userRepo;
     }
 
     public FoodListing create(FoodListing listing) {
+        validate(listing);
+        locate(listing);
+        listing.setRemainingQuantity(listing.getTotalQuantity());
+
+        FoodListing saved = listingRepo.save(listing);
+        published(saved);
+        return saved;
+    }
+
+    void validate(FoodListing listing) {
         if (listing.getRestaurantId() == null) {
             throw new RuntimeException("restaurantId is required");
         }
@@ -26,17 +59,66 @@ public class FoodListingService {
         if (listing.getPerPersonLimit() <= 0) {
             throw new RuntimeException("perPersonLimit must be > 0");
         }
+        Coordinates.check(listing.getLatitude(), listing.getLongitude());
+    }
 
-        listing.setRemainingQuantity(listing.getTotalQuantity());
+    // Listings without their own pin are picked up at the restaurant's
+    void locate(FoodListing listing) {
+        if (listing.getLatitude() != null) return;
+        userRepo.findLocationById(listing.getRestaurantId()).ifPresent(location -> {
+            listing.setLatitude(location.getLatitude());
+            listing.setLongitude(location.getLongitude());
+        });
+    }
 
-        return listingRepo.save(listing);
+    // Once a new listing is committed: claimable, in the feed, announced
+    void published(FoodListing saved) {
+        inventory.track(saved);
+        activeListings.add(saved);
+        events.created(saved);
+        versions.bump(CollectionVersions.Kind.LISTINGS);
     }
 
+    @Transactional(readOnly = true)
     public List<FoodListing> getAll() {
-        return listingRepo.findAll();
+        return inventory.overlay(listingRepo.findAll());
     }
 
+    public List<FoodListing> getActive() {
+        return activeListings.feed();
+    }
+
+    public List<NearbyListing> getNear(double latitude, double longitude, double radiusMeters, Integer limit) {
+        return activeListings.near(latitude, longitude, radiusMeters, Keyset.limit(limit));
+    }
+
+    public List<NearbyListing> getWithin(double south, double west, double north, double east, Integer limit) {
+        return activeListings.within(south, west, north, east, Keyset.limit(limit));
+    }
+
+    @Transactional(readOnly = true)
     public List<FoodListing> getByRestaurant(Long restaurantId) {
-        return listingRepo.findByRestaurantId(restaurantId);
+        return inventory.overlay(listingRepo.findByRestaurantId(restaurantId));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<FoodListing> getPage(Long restaurantId, ListingStatus status, Instant from, Instant to,
+                                           String cursor, Integer limit) {
+        List<Specification<FoodListing>> filters = new ArrayList<>();
+        if (restaurantId != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("restaurantId"), restaurantId));
+        }
+        if (status != null) {
+            filters.add(status.matching(Instant.now()));
+        }
+        filters.add(Keyset.within("createdAt", from, to));
+        filters.add(Keyset.after("createdAt", KeysetCursor.decode(cursor)));
+
+        int pageSize = Keyset.limit(limit);
+        List<FoodListing> rows = listingRepo.findBy(Specification.allOf(filters),
+                query -> query.sortBy(Keyset.newestFirst("createdAt")).limit(pageSize + 1).all());
+
+        return Keyset.page(inventory.overlay(rows), pageSize,
+                listing -> new KeysetCursor(listing.getCreatedAt(), listing.getId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.common.Coordinates;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Fixed-size lat/lng grid over the located active listings. A cell is
+// cellMeters tall and as many degrees wide, so a radius or box query only
+// visits the cells its bounds overlap, or the occupied cells if there are
+// fewer of those. Either way the cost tracks what's nearby, not the total.
+final class GeoGrid {
+
+    record Hit(FoodListing listing, double distanceMeters) {}
+
+    private final double cellDegrees;
+
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, FoodListing>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> cellOf = new ConcurrentHashMap<>();
+
+    GeoGrid(double cellMeters) {
+        if (cellMeters <= 0) throw new IllegalArgumentException("cellMeters must be > 0");
+        this.cellDegrees = cellMeters / Coordinates.METERS_PER_DEGREE;
+    }
+
+    // Listings without coordinates are never indexed
+    void put(FoodListing listing) {
+        if (listing.getLatitude() == null || listing.getLongitude() == null) return;
+
+        Long id = listing.getId();
+        long cell = cell(row(listing.getLatitude()), column(listing.getLongitude()));
+        Long previous = cellOf.put(id, cell);
+        if (previous != null && previous != cell) leave(previous, id);
+        cells.compute(cell, (key, members) -> {
+            if (members == null) members = new ConcurrentHashMap<>();
+            members.put(id, listing);
+            return members;
+        });
+    }
+
+    void remove(Long listingId) {
+        Long cell = cellOf.remove(listingId);
+        if (cell != null) leave(cell, listingId);
+    }
+
+    int size() {
+        return cellOf.size();
+    }
+
+    int occupiedCells() {
+        return cells.size();
+    }
+
+    // Within radiusMeters of the point, nearest first
+    List<Hit> near(double latitude, double longitude, double radiusMeters, int limit) {
+        double dLat = radiusMeters / Coordinates.METERS_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(latitude));
+        // Near a pole the circle spans every longitude
+        double dLng = cos * 180 > dLat ? dLat / cos : 180;
+
+        List<Hit> hits = new ArrayList<>();
+        for (FoodListing listing : candidates(latitude - dLat, longitude - dLng, latitude + dLat, longitude + dLng)) {
+            double distance = distance(latitude, longitude, listing);
+            if (distance <= radiusMeters) hits.add(new Hit(listing, distance));
+        }
+        return nearest(hits, limit);
+    }
+
+    // Inside the box, nearest its centre first
+    List<Hit> within(double south, double west, double north, double east, int limit) {
+        double centreLat = (south + north) / 2;
+        double centreLng = (west + east) / 2;
+
+        List<Hit> hits = new ArrayList<>();
+        for (FoodListing listing : candidates(south, west, north, east)) {
+            if (inside(listing, south, west, north, east)) {
+                hits.add(new Hit(listing, distance(centreLat, centreLng, listing)));
+            }
+        }
+        return nearest(hits, limit);
+    }
+
+    // Everything in the cells overlapping the box; may include points just outside it
+    private List<FoodListing> candidates(double south, double west, double north, double east) {
+        long top = row(Math.min(north, 90));
+        long bottom = row(Math.max(south, -90));
+        long left = column(Math.max(west, -180));
+        long right = column(Math.min(east, 180));
+
+        List<FoodListing> found = new ArrayList<>();
+        if ((top - bottom + 1) * (right - left + 1) > cells.size()) {
+            for (Map.Entry<Long, ConcurrentHashMap<Long, FoodListing>> entry : cells.entrySet()) {
+                long row = entry.getKey() >> 32;
+                long column = (int) entry.getKey().longValue();
+                if (row >= bottom && row <= top && column >= left && column <= right) {
+                    found.addAll(entry.getValue().values());
+                }
+            }
+            return found;
+        }
+
+        for (long row = bottom; row <= top; row++) {
+            for (long column = left; column <= right; column++) {
+                Map<Long, FoodListing> members = cells.get(cell(row, column));
+                if (members != null) found.addAll(members.values());
+            }
+        }
+        return found;
+    }
+
+    private void leave(long cell, Long listingId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(listingId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor(latitude / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long cell(long row, long column) {
+        return (row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static boolean inside(FoodListing listing, double south, double west, double north, double east) {
+        double lat = listing.getLatitude();
+        double lng = listing.getLongitude();
+        return lat >= south && lat <= north && lng >= west && lng <= east;
+    }
+
+    private static double distance(double latitude, double longitude, FoodListing listing) {
+        return Coordinates.distanceMeters(latitude, longitude, listing.getLatitude(), listing.getLongitude());
+    }
+
+    private static List<Hit> nearest(List<Hit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble(Hit::distanceMeters)
+                .thenComparing(hit -> hit.listing().getId(), Comparator.reverseOrder()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+}
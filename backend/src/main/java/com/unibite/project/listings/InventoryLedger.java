@@ -0,0 +1,267 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.common.CollectionVersions;
+import com.unibite.project.common.SqliteErrors;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory source of truth for remainingQuantity. Claims reserve and release
+// against one atomic counter per listing; food_listings is updated write-behind.
+// Stocks of expired and long sold-out listings are retired: once a flush has
+// written their last count they leave memory, and anything that still touches
+// one (a late cancel, say) reloads it from the row.
+@Component
+public class InventoryLedger implements MeterBinder {
+
+    public enum Outcome {
+        RESERVED,
+        NOT_FOUND,
+        SOLD_OUT,
+        OVER_LIMIT,
+        INSUFFICIENT
+    }
+
+    public record Reservation(Outcome outcome, int remaining) {
+        public boolean isReserved() {
+            return outcome == Outcome.RESERVED;
+        }
+    }
+
+    // Left in an evicted stock, so a caller still holding it goes back to the map
+    private static final int EVICTED = Integer.MIN_VALUE;
+
+    private static final class Stock {
+        final AtomicInteger remaining;
+        final int perPersonLimit;
+        // What food_listings last had written for it
+        volatile int flushed;
+
+        Stock(int remaining, int perPersonLimit) {
+            this.remaining = new AtomicInteger(remaining);
+            this.perPersonLimit = perPersonLimit;
+            this.flushed = remaining;
+        }
+    }
+
+    private final FoodListingRepository listingRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final CollectionVersions versions;
+
+    private final ConcurrentHashMap<Long, Stock> stocks = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> retired = ConcurrentHashMap.newKeySet();
+    private final AtomicLong busyFailures = new AtomicLong();
+
+    public InventoryLedger(FoodListingRepository listingRepo, JdbcTemplate jdbcTemplate,
+                           CollectionVersions versions) {
+        this.listingRepo = listingRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = versions;
+    }
+
+    // remaining_quantity is written behind, so after a crash it can trail the
+    // claims that were committed. Re-derive it from the claims themselves
+    // (archived ones included) before anything seeds a stock from the row.
+    @PostConstruct
+    public void reconcile() {
+        jdbcTemplate.update("UPDATE food_listings SET remaining_quantity = total_quantity"
+                + " - (SELECT COALESCE(SUM(quantity), 0) FROM claims"
+                + " WHERE listing_id = food_listings.id AND status <> 'CANCELED')"
+                + " - (SELECT COALESCE(SUM(quantity), 0) FROM claims_archive"
+                + " WHERE listing_id = food_listings.id AND status <> 'CANCELED')");
+    }
+
+    public void track(FoodListing listing) {
+        stocks.put(listing.getId(), new Stock(listing.getRemainingQuantity(), listing.getPerPersonLimit()));
+    }
+
+    public Reservation reserve(Long listingId, int quantity) {
+        Stock stock = stockFor(listingId);
+        if (stock == null) {
+            return new Reservation(Outcome.NOT_FOUND, 0);
+        }
+
+        while (true) {
+            int current = stock.remaining.get();
+            if (current == EVICTED) {
+                stock = stockFor(listingId);
+                if (stock == null) return new Reservation(Outcome.NOT_FOUND, 0);
+                continue;
+            }
+            if (current <= 0) {
+                return new Reservation(Outcome.SOLD_OUT, current);
+            }
+            if (quantity > stock.perPersonLimit) {
+                return new Reservation(Outcome.OVER_LIMIT, current);
+            }
+            if (quantity > current) {
+                return new Reservation(Outcome.INSUFFICIENT, current);
+            }
+            if (stock.remaining.compareAndSet(current, current - quantity)) {
+                dirty.add(listingId);
+                versions.bump(CollectionVersions.Kind.LISTINGS);
+                return new Reservation(Outcome.RESERVED, current - quantity);
+            }
+        }
+    }
+
+    public int release(Long listingId, int quantity) {
+        Stock stock = stockFor(listingId);
+        if (stock == null) {
+            throw new RuntimeException("Listing not found");
+        }
+
+        while (true) {
+            int current = stock.remaining.get();
+            if (current == EVICTED) {
+                stock = stockFor(listingId);
+                if (stock == null) throw new RuntimeException("Listing not found");
+                continue;
+            }
+            if (stock.remaining.compareAndSet(current, current + quantity)) {
+                dirty.add(listingId);
+                versions.bump(CollectionVersions.Kind.LISTINGS);
+                return current + quantity;
+            }
+        }
+    }
+
+    public int remaining(Long listingId) {
+        Stock stock = stockFor(listingId);
+        if (stock == null) {
+            throw new RuntimeException("Listing not found");
+        }
+        int remaining = stock.remaining.get();
+        return remaining == EVICTED ? remaining(listingId) : remaining;
+    }
+
+    // The listing can no longer be claimed from the feed (expired, or sold out
+    // past retention); its stock is dropped after the next flush that covers it
+    public void retire(Long listingId) {
+        retired.add(listingId);
+    }
+
+    public FoodListing overlay(FoodListing listing) {
+        Stock stock = stocks.get(listing.getId());
+        int remaining = stock == null ? EVICTED : stock.remaining.get();
+        if (remaining != EVICTED) {
+            listing.setRemainingQuantity(remaining);
+        }
+        return listing;
+    }
+
+    public List<FoodListing> overlay(List<FoodListing> listings) {
+        listings.forEach(this::overlay);
+        return listings;
+    }
+
+    public long totalRemaining() {
+        long total = 0;
+        for (Stock stock : stocks.values()) total += Math.max(0, stock.remaining.get());
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unibite.inventory.remaining", this, InventoryLedger::totalRemaining)
+                .description("Portions left across all tracked listings")
+                .register(registry);
+        Gauge.builder("unibite.inventory.unflushed", dirty, Set::size).register(registry);
+        Gauge.builder("unibite.inventory.tracked", stocks, Map::size)
+                .description("Listings whose stock is held in memory")
+                .register(registry);
+        FunctionCounter.builder("unibite.sqlite.busy", busyFailures, AtomicLong::get)
+                .tag("component", "inventory-flush")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.inventory.flush-interval-ms:250}")
+    public void flush() {
+        if (!dirty.isEmpty()) write();
+        evictRetired();
+    }
+
+    private void write() {
+        List<Object[]> updates = new ArrayList<>();
+        List<Stock> written = new ArrayList<>();
+        for (Long listingId : dirty) {
+            // Remove before reading so a concurrent change re-marks the listing.
+            dirty.remove(listingId);
+            Stock stock = stocks.get(listingId);
+            if (stock == null) continue;
+            int remaining = stock.remaining.get();
+            if (remaining == EVICTED) continue;
+            updates.add(new Object[]{remaining, listingId});
+            written.add(stock);
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE food_listings SET remaining_quantity = ? WHERE id = ?", updates);
+        } catch (RuntimeException e) {
+            // Re-marked listings are retried on the next flush
+            if (SqliteErrors.isBusy(e)) busyFailures.incrementAndGet();
+            updates.forEach(update -> dirty.add((Long) update[1]));
+            throw e;
+        }
+        for (int i = 0; i < written.size(); i++) {
+            written.get(i).flushed = (Integer) updates.get(i)[0];
+        }
+    }
+
+    // Only a stock whose count is already in the row goes. The CAS to EVICTED
+    // fails if a claim or cancel moved it meanwhile, and one arriving after it
+    // reloads the row, which holds that same count.
+    private void evictRetired() {
+        for (Long listingId : retired) {
+            Stock stock = stocks.get(listingId);
+            if (stock == null) {
+                retired.remove(listingId);
+                continue;
+            }
+            int remaining = stock.remaining.get();
+            if (remaining != stock.flushed || dirty.contains(listingId)) continue;
+            if (stock.remaining.compareAndSet(remaining, EVICTED)) {
+                stocks.remove(listingId, stock);
+                retired.remove(listingId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Stock stockFor(Long listingId) {
+        Stock stock = stocks.get(listingId);
+        if (stock != null && stock.remaining.get() != EVICTED) return stock;
+
+        return listingRepo.findById(listingId)
+                .map(listing -> {
+                    // A late touch to an expired listing loads it only until the next flush
+                    if (listing.getAvailableUntil() != null && !listing.getAvailableUntil().isAfter(Instant.now())) {
+                        retired.add(listingId);
+                    }
+                    return stocks.compute(listingId, (id, current) ->
+                            current != null && current.remaining.get() != EVICTED ? current
+                                    : new Stock(listing.getRemainingQuantity(), listing.getPerPersonLimit()));
+                })
+                .orElse(null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.unibite.project.listings;
+
+// id is assigned when the broadcaster publishes the event; 0 while pending.
+public record ListingEvent(long id, Type type, Long listingId, Integer remainingQuantity, FoodListing listing) {
+
+    public enum Type {
+        CREATED,
+        QUANTITY_CHANGED,
+        SOLD_OUT,
+        EXPIRED
+    }
+
+    ListingEvent withId(long id) {
+        return new ListingEvent(id, type, listingId, remainingQuantity, listing);
+    }
+}
@@ -0,0 +1,261 @@
+package com.unibite.project.listings;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Fans listing changes out to SSE subscribers without ever blocking the
+// publisher on I/O. Events are numbered in arrival order; a run of quantity
+// changes to one listing between dispatch ticks is coalesced into the slot of
+// its first change, and any other event for that listing ends the run, so a
+// sell-out followed by a restock is never delivered the other way round.
+// Each subscriber gets a bounded queue (overflow drops the subscriber) drained
+// on its own virtual thread, so a client whose socket has stopped accepting
+// writes only ever holds up itself, and one stuck in a single send for longer
+// than send-timeout is dropped at the next heartbeat. Recent events are kept so
+// a reconnect can resume from Last-Event-ID; ids start from the clock, so an id
+// from before a restart is recognised and answered with a reset.
+@Component
+public class ListingEventBroadcaster implements MeterBinder {
+
+    private static final ListingEvent HEARTBEAT = new ListingEvent(0, null, null, null, null);
+
+    private final int replaySize;
+    private final int subscriberQueueSize;
+    private final long emitterTimeoutMs;
+    private final long sendTimeoutNanos;
+
+    // guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private final Map<Long, Pending> openQuantities = new HashMap<>();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("listing-event-sender-", 0).factory());
+
+    // Ids this run hands out are all above it; anything at or below is from an earlier run
+    private final long firstEventId;
+
+    // guarded by this
+    private final ArrayDeque<ListingEvent> replay = new ArrayDeque<>();
+    private long lastEventId;
+
+    public ListingEventBroadcaster(@Value("${unibite.listing-events.replay-size:1024}") int replaySize,
+                                   @Value("${unibite.listing-events.subscriber-queue-size:256}") int subscriberQueueSize,
+                                   @Value("${unibite.listing-events.emitter-timeout:PT30M}") Duration emitterTimeout,
+                                   @Value("${unibite.listing-events.send-timeout:PT10S}") Duration sendTimeout) {
+        this.replaySize = replaySize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        // Microseconds since the epoch, like CollectionVersions' seed but with room
+        // for a thousand events a millisecond; still well inside a JS number
+        this.firstEventId = System.currentTimeMillis() * 1000;
+        this.lastEventId = firstEventId;
+    }
+
+    public void created(FoodListing listing) {
+        enqueue(new ListingEvent(0, ListingEvent.Type.CREATED, listing.getId(),
+                listing.getRemainingQuantity(), listing));
+    }
+
+    public void quantityChanged(Long listingId, int remaining) {
+        ListingEvent event = new ListingEvent(0, ListingEvent.Type.QUANTITY_CHANGED, listingId, remaining, null);
+        synchronized (pendingLock) {
+            Pending open = openQuantities.get(listingId);
+            if (open != null) {
+                open.event = event;
+                return;
+            }
+            open = new Pending(event);
+            pending.add(open);
+            openQuantities.put(listingId, open);
+        }
+    }
+
+    public void soldOut(Long listingId) {
+        enqueue(new ListingEvent(0, ListingEvent.Type.SOLD_OUT, listingId, 0, null));
+    }
+
+    public void expired(Long listingId) {
+        enqueue(new ListingEvent(0, ListingEvent.Type.EXPIRED, listingId, null, null));
+    }
+
+    private void enqueue(ListingEvent event) {
+        synchronized (pendingLock) {
+            openQuantities.remove(event.listingId());
+            pending.add(new Pending(event));
+        }
+    }
+
+    public synchronized SseEmitter subscribe(Long lastSeenEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+
+        if (lastSeenEventId != null) {
+            ListingEvent oldest = replay.peekFirst();
+            boolean missedEvents = oldest != null && lastSeenEventId < oldest.id() - 1;
+            boolean otherRun = lastSeenEventId < firstEventId || lastSeenEventId > lastEventId;
+            if (missedEvents || otherRun) {
+                // Too far behind, or from before a restart: tell the client to reload
+                subscriber.offer(new ListingEvent(lastEventId, null, null, null, null));
+            } else {
+                replay.stream().filter(event -> event.id() > lastSeenEventId).forEach(subscriber::offer);
+            }
+        }
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.listing-events.coalesce-interval:PT0.2S}")
+    public void dispatch() {
+        List<Pending> batch;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new ArrayList<>();
+            openQuantities.clear();
+        }
+
+        synchronized (this) {
+            for (Pending next : batch) {
+                ListingEvent event = next.event.withId(++lastEventId);
+                replay.addLast(event);
+                if (replay.size() > replaySize) replay.removeFirst();
+                subscribers.forEach(subscriber -> subscriber.offer(event));
+            }
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    @Scheduled(fixedDelayString = "${unibite.listing-events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.stalled(now)) {
+                subscriber.drop();
+                return;
+            }
+            subscriber.offer(HEARTBEAT);
+            subscriber.schedule();
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("unibite.listing_events.subscribers", subscribers, List::size).register(registry);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // The replay buffer, oldest first
+    synchronized List<ListingEvent> recent() {
+        return new ArrayList<>(replay);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    // A queued event; a quantity slot's event is replaced while its run is open
+    private static final class Pending {
+        ListingEvent event;
+
+        Pending(ListingEvent event) {
+            this.event = event;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<ListingEvent> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean dropped = new AtomicBoolean();
+        // nanoTime the send in progress started at, 0 while idle
+        volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(ListingEvent event) {
+            if (!queue.offer(event)) {
+                // Slow consumer: cut it loose rather than buffer without bound
+                drop();
+            }
+        }
+
+        void schedule() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                for (ListingEvent event; (event = queue.poll()) != null; ) {
+                    sendingSince = System.nanoTime();
+                    emitter.send(toSse(event));
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop();
+            } finally {
+                sendingSince = 0;
+                draining.set(false);
+            }
+            if (subscribers.contains(this)) schedule();
+        }
+
+        boolean stalled(long now) {
+            long since = sendingSince;
+            return since != 0 && now - since > sendTimeoutNanos;
+        }
+
+        // complete() waits for the emitter's write lock, which a stuck send is
+        // holding, so it runs on a sender thread rather than the caller's
+        private void drop() {
+            if (!dropped.compareAndSet(false, true)) return;
+            subscribers.remove(this);
+            queue.clear();
+            senders.execute(emitter::complete);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(ListingEvent event) {
+        if (event == HEARTBEAT) {
+            return SseEmitter.event().comment("keepalive");
+        }
+        if (event.type() == null) {
+            return SseEmitter.event().id(String.valueOf(event.id())).name("RESET").data("reload");
+        }
+        return SseEmitter.event().id(String.valueOf(event.id())).name(event.type().name()).data(event);
+    }
+}
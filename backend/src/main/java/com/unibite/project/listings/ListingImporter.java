@@ -0,0 +1,243 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.common.Csv;
+import com.unibite.project.listings.dto.ImportResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bulk listing upload, read one row at a time from a JSON array or CSV body.
+// Valid rows are inserted with JDBC in batches of batch-size, one short write
+// transaction per batch, so a slow upload never holds the writer connection.
+// Ids are assigned from max(id) inside that transaction: IDENTITY would force
+// one insert per row, and the single writer connection keeps them unique.
+@Service
+public class ListingImporter {
+
+    private static final String INSERT = "INSERT INTO food_listings (id, restaurant_id, title, description, "
+            + "total_quantity, remaining_quantity, per_person_limit, pickup_location, latitude, longitude, "
+            + "available_until, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> CSV_COLUMNS = List.of("restaurantId", "title", "description",
+            "totalQuantity", "perPersonLimit", "pickupLocation", "latitude", "longitude", "availableUntil");
+
+    // Written by the listing export but assigned here, so a re-imported export skips them
+    private static final List<String> EXPORT_ONLY_COLUMNS = List.of("id", "remainingQuantity", "createdAt");
+
+    // One parsed row: a listing, or why it couldn't be read
+    private record Row(FoodListing listing, String error) {}
+
+    private interface RowSource {
+        // Null at end of input
+        Row next();
+    }
+
+    private record Pending(int row, FoodListing listing) {}
+
+    private final FoodListingService listingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper mapper;
+    private final ObjectReader elementReader;
+    private final int batchSize;
+
+    public ListingImporter(FoodListingService listingService, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, JsonMapper mapper,
+                           @Value("${unibite.listings.import.batch-size:200}") int batchSize) {
+        this.listingService = listingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mapper = mapper;
+        // Each element is read on its own, with the rest of the array still to come
+        this.elementReader = mapper.readerFor(JsonNode.class).without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importJson(InputStream body) {
+        JsonParser parser = mapper.createParser(body);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new RuntimeException("Expected a JSON array of listings");
+        }
+
+        return run(() -> {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) return null;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new Row(null, "Expected a listing object");
+            }
+
+            JsonNode node = elementReader.readValue(parser);
+            try {
+                return new Row(mapper.treeToValue(node, FoodListing.class), null);
+            } catch (JacksonException e) {
+                return new Row(null, "Unreadable listing: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    public ImportResult importCsv(InputStream body) {
+        Csv.RecordReader reader = new Csv.RecordReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) throw new RuntimeException("CSV header row is required");
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).strip();
+            if (EXPORT_ONLY_COLUMNS.contains(name)) continue;
+            if (!CSV_COLUMNS.contains(name)) throw new RuntimeException("Unknown CSV column: " + name);
+            columns.put(name, i);
+        }
+
+        return run(() -> {
+            List<String> fields = reader.next();
+            if (fields == null) return null;
+            try {
+                return new Row(fromCsv(fields, columns), null);
+            } catch (RuntimeException e) {
+                return new Row(null, e.getMessage());
+            }
+        });
+    }
+
+    private ImportResult run(RowSource source) {
+        ImportResult result = new ImportResult();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        int rowNumber = 0;
+
+        try {
+            Row row;
+            while ((row = source.next()) != null) {
+                rowNumber++;
+                if (row.error() != null) {
+                    result.rejected(rowNumber, row.error());
+                    continue;
+                }
+                try {
+                    listingService.validate(row.listing());
+                    listingService.locate(row.listing());
+                } catch (RuntimeException e) {
+                    result.rejected(rowNumber, e.getMessage());
+                    continue;
+                }
+
+                batch.add(new Pending(rowNumber, row.listing()));
+                if (batch.size() >= batchSize) insert(batch, result);
+            }
+        } catch (JacksonException e) {
+            // The rest of the body can't be read; rows before it still count
+            result.rejected(rowNumber + 1, "Malformed JSON: " + e.getOriginalMessage());
+        } finally {
+            insert(batch, result);
+        }
+        result.rows.sort(Comparator.comparingInt(row -> row.row));
+        return result;
+    }
+
+    private void insert(List<Pending> batch, ImportResult result) {
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long nextId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM food_listings", Long.class) + 1;
+                List<Object[]> args = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    FoodListing listing = pending.listing();
+                    listing.setId(nextId++);
+                    listing.setRemainingQuantity(listing.getTotalQuantity());
+                    args.add(new Object[]{
+                            listing.getId(), listing.getRestaurantId(), listing.getTitle(), listing.getDescription(),
+                            listing.getTotalQuantity(), listing.getRemainingQuantity(), listing.getPerPersonLimit(),
+                            listing.getPickupLocation(), listing.getLatitude(), listing.getLongitude(),
+                            epochMillis(listing.getAvailableUntil()),
+                            epochMillis(listing.getCreatedAt())});
+                }
+                jdbcTemplate.batchUpdate(INSERT, args);
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> result.rejected(pending.row(), "Insert failed: " + e.getMessage()));
+            batch.clear();
+            return;
+        }
+
+        for (Pending pending : batch) {
+            listingService.published(pending.listing());
+            result.imported(pending.row(), pending.listing().getId());
+        }
+        batch.clear();
+    }
+
+    private static FoodListing fromCsv(List<String> fields, Map<String, Integer> columns) {
+        FoodListing listing = new FoodListing();
+        String restaurantId = field(fields, columns, "restaurantId");
+        if (restaurantId != null) listing.setRestaurantId(number(restaurantId, "restaurantId"));
+        listing.setTitle(field(fields, columns, "title"));
+        listing.setDescription(field(fields, columns, "description"));
+        String total = field(fields, columns, "totalQuantity");
+        if (total != null) listing.setTotalQuantity((int) number(total, "totalQuantity"));
+        String limit = field(fields, columns, "perPersonLimit");
+        if (limit != null) listing.setPerPersonLimit((int) number(limit, "perPersonLimit"));
+        listing.setPickupLocation(field(fields, columns, "pickupLocation"));
+        String latitude = field(fields, columns, "latitude");
+        if (latitude != null) listing.setLatitude(degrees(latitude, "latitude"));
+        String longitude = field(fields, columns, "longitude");
+        if (longitude != null) listing.setLongitude(degrees(longitude, "longitude"));
+        String until = field(fields, columns, "availableUntil");
+        if (until != null) {
+            try {
+                listing.setAvailableUntil(Instant.parse(until));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("availableUntil must be an ISO-8601 instant");
+            }
+        }
+        return listing;
+    }
+
+    // Missing and empty cells are both null
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static long number(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(name + " must be a number");
+        }
+    }
+
+    private static double degrees(String value, String name) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(name + " must be a number");
+        }
+    }
+
+    private static Long epochMillis(Instant instant) {
+        return instant == null ? null : instant.toEpochMilli();
+    }
+}
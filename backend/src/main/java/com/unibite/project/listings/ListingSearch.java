@@ -0,0 +1,85 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.common.Keyset;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Full-text listing search over food_listings_fts (see SqliteSchemaBootstrap),
+// ranked by BM25 with title matches weighted above pickup location, then
+// description. Every word is a prefix, so "veg piz" finds "Vegetarian pizza".
+@Service
+public class ListingSearch {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+
+    private static final String SEARCH = "SELECT l.id FROM food_listings_fts f JOIN food_listings l ON l.id = f.rowid "
+            + "WHERE food_listings_fts MATCH ?%s ORDER BY bm25(food_listings_fts, 10.0, 1.0, 5.0), l.id DESC LIMIT ?";
+
+    private static final String ACTIVE = " AND l.remaining_quantity > 0 AND (l.available_until IS NULL OR l.available_until > ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FoodListingRepository listingRepo;
+    private final InventoryLedger inventory;
+    private final ActiveListings activeListings;
+
+    public ListingSearch(JdbcTemplate jdbcTemplate, FoodListingRepository listingRepo, InventoryLedger inventory,
+                         ActiveListings activeListings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingRepo = listingRepo;
+        this.inventory = inventory;
+        this.activeListings = activeListings;
+    }
+
+    // Listings matching every word; if none do, those matching any of them
+    public List<FoodListing> search(String text, boolean activeOnly, Integer limit) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) throw new RuntimeException("Search text is required");
+
+        int pageSize = Keyset.limit(limit);
+        List<Long> ids = matching(String.join(" AND ", terms), activeOnly, pageSize);
+        if (ids.isEmpty() && terms.size() > 1) {
+            ids = matching(String.join(" OR ", terms), activeOnly, pageSize);
+        }
+        return load(ids, activeOnly);
+    }
+
+    private List<Long> matching(String match, boolean activeOnly, int pageSize) {
+        if (!activeOnly) return jdbcTemplate.queryForList(String.format(SEARCH, ""), Long.class, match, pageSize);
+        return jdbcTemplate.queryForList(String.format(SEARCH, ACTIVE), Long.class,
+                match, Instant.now().toEpochMilli(), pageSize);
+    }
+
+    // Rank order kept; stock comes from the ledger, which is ahead of the table
+    private List<FoodListing> load(List<Long> ids, boolean activeOnly) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) rank.put(ids.get(i), i);
+
+        List<FoodListing> listings = new ArrayList<>(inventory.overlay(listingRepo.findAllById(ids)));
+        if (activeOnly) listings.removeIf(listing -> !activeListings.contains(listing.getId()));
+        listings.sort(Comparator.comparing(listing -> rank.get(listing.getId())));
+        return listings;
+    }
+
+    // User text becomes quoted prefix terms, so FTS5 operators and syntax
+    // characters in it are matched as plain words
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        Matcher words = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (words.find() && terms.size() < MAX_TERMS) {
+            terms.add("\"" + words.group() + "\"*");
+        }
+        return terms;
+    }
+}
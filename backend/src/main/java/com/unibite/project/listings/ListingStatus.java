@@ -0,0 +1,23 @@
+package com.unibite.project.listings;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+
+public enum ListingStatus {
+    ACTIVE,
+    SOLD_OUT,
+    EXPIRED;
+
+    Specification<FoodListing> matching(Instant now) {
+        return (root, query, cb) -> switch (this) {
+            case ACTIVE -> cb.and(
+                    cb.greaterThan(root.get("remainingQuantity"), 0),
+                    cb.or(cb.isNull(root.get("availableUntil")), cb.greaterThan(root.get("availableUntil"), now)));
+            case SOLD_OUT -> cb.lessThanOrEqualTo(root.get("remainingQuantity"), 0);
+            case EXPIRED -> cb.and(
+                    cb.greaterThan(root.get("remainingQuantity"), 0),
+                    cb.lessThanOrEqualTo(root.get("availableUntil"), now));
+        };
+    }
+}
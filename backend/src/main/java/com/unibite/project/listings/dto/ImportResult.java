@@ -0,0 +1,20 @@
+package com.unibite.project.listings.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    public int imported;
+    public int rejected;
+    public List<ImportRow> rows = new ArrayList<>();
+
+    public void imported(int row, Long id) {
+        imported++;
+        rows.add(new ImportRow(row, id, null));
+    }
+
+    public void rejected(int row, String error) {
+        rejected++;
+        rows.add(new ImportRow(row, null, error));
+    }
+}
@@ -0,0 +1,13 @@
+package com.unibite.project.listings.dto;
+
+public class ImportRow {
+    public int row;
+    public Long id;
+    public String error;
+
+    public ImportRow(int row, Long id, String error) {
+        this.row = row;
+        this.id = id;
+        this.error = error;
+    }
+}
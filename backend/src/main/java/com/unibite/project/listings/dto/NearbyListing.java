@@ -0,0 +1,13 @@
+package com.unibite.project.listings.dto;
+
+import com.unibite.project.listings.FoodListing;
+
+public class NearbyListing {
+    public FoodListing listing;
+    public int distanceMeters;
+
+    public NearbyListing(FoodListing listing, int distanceMeters) {
+        this.listing = listing;
+        this.distanceMeters = distanceMeters;
+    }
+}
@@ -0,0 +1,47 @@
+package com.unibite.project.restaurants;
+
+import com.unibite.project.claims.dto.ClaimStats;
+import com.unibite.project.restaurants.dto.DashboardResponse;
+import com.unibite.project.restaurants.dto.RestaurantStats;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/restaurants")
+public class RestaurantDashboardController {
+
+    private final RestaurantDashboardService dashboardService;
+    private final RestaurantStatsService statsService;
+
+    public RestaurantDashboardController(RestaurantDashboardService dashboardService,
+                                         RestaurantStatsService statsService) {
+        this.dashboardService = dashboardService;
+        this.statsService = statsService;
+    }
+
+    // Restaurant: listings with their claims and per-status counts in one call
+    @GetMapping("/{restaurantId}/dashboard")
+    public DashboardResponse dashboard(@PathVariable Long restaurantId) {
+        return dashboardService.getDashboard(restaurantId);
+    }
+
+    // Restaurant: claimed / redeemed / canceled / no-show per day, from the rollups (last 30 days by default)
+    @GetMapping("/{restaurantId}/stats")
+    public RestaurantStats stats(@PathVariable Long restaurantId,
+                                 @RequestParam(required = false) LocalDate from,
+                                 @RequestParam(required = false) LocalDate to) {
+        return statsService.getStats(restaurantId, from, to);
+    }
+
+    @GetMapping("/{restaurantId}/stats/listings")
+    public List<ClaimStats> listingStats(@PathVariable Long restaurantId) {
+        return statsService.getListingStats(restaurantId);
+    }
+
+    @GetMapping("/listings/{listingId}/stats")
+    public ClaimStats listingStat(@PathVariable Long listingId) {
+        return statsService.getListingStat(listingId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.unibite.project.restaurants;
+
+import com.unibite.project.claims.Claim;
+import com.unibite.project.claims.ClaimService;
+import com.unibite.project.claims.ClaimStatus;
+import com.unibite.project.listings.FoodListing;
+import com.unibite.project.listings.FoodListingService;
+import com.unibite.project.restaurants.dto.DashboardResponse;
+import com.unibite.project.restaurants.dto.ListingDashboard;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class RestaurantDashboardService {
+
+    private final FoodListingService listingService;
+    private final ClaimService claimService;
+
+    public RestaurantDashboardService(FoodListingService listingService, ClaimService claimService) {
+        this.listingService = listingService;
+        this.claimService = claimService;
+    }
+
+    // Two queries regardless of history size: listings, then all their claims via a join.
+    @Transactional(readOnly = true)
+    public DashboardResponse getDashboard(Long restaurantId) {
+        List<FoodListing> listings = listingService.getByRestaurant(restaurantId);
+        Map<Long, List<Claim>> claimsByListing = claimService.getClaimsByRestaurant(restaurantId).stream()
+                .collect(Collectors.groupingBy(Claim::getListingId));
+
+        Map<ClaimStatus, Long> totals = emptyCounts();
+        List<ListingDashboard> rows = listings.stream()
+                .map(listing -> {
+                    List<Claim> claims = claimsByListing.getOrDefault(listing.getId(), List.of());
+                    Map<ClaimStatus, Long> counts = emptyCounts();
+                    claims.forEach(claim -> {
+                        counts.merge(claim.getStatus(), 1L, Long::sum);
+                        totals.merge(claim.getStatus(), 1L, Long::sum);
+                    });
+                    return new ListingDashboard(listing, counts, claims);
+                })
+                .toList();
+
+        return new DashboardResponse(restaurantId, totals, rows);
+    }
+
+    private Map<ClaimStatus, Long> emptyCounts() {
+        Map<ClaimStatus, Long> counts = new EnumMap<>(ClaimStatus.class);
+        for (ClaimStatus status : ClaimStatus.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,56 @@
+package com.unibite.project.restaurants;
+
+import com.unibite.project.claims.ClaimRollups;
+import com.unibite.project.claims.dto.ClaimStats;
+import com.unibite.project.restaurants.dto.RestaurantStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+public class RestaurantStatsService {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+
+    private final ClaimRollups rollups;
+    private final ZoneId zone;
+
+    // Same zone the rollups bucket days in, so "today" is their today
+    public RestaurantStatsService(ClaimRollups rollups, @Value("${unibite.stats.zone:America/Winnipeg}") ZoneId zone) {
+        this.rollups = rollups;
+        this.zone = zone;
+    }
+
+    // Reads at most MAX_DAYS rollup rows, however many claims are behind them
+    public RestaurantStats getStats(Long restaurantId, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(zone);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) throw new RuntimeException("from must not be after to");
+        if (start.plusDays(MAX_DAYS).isBefore(end)) throw new RuntimeException("Range is limited to " + MAX_DAYS + " days");
+
+        List<ClaimStats> days = rollups.restaurantDays(restaurantId, start, end);
+        long[] sum = new long[6];
+        for (ClaimStats day : days) {
+            sum[0] += day.claims;
+            sum[1] += day.meals;
+            sum[2] += day.redeemedClaims;
+            sum[3] += day.redeemedMeals;
+            sum[4] += day.canceledClaims;
+            sum[5] += day.canceledMeals;
+        }
+        ClaimStats totals = new ClaimStats(null, null, sum[0], sum[1], sum[2], sum[3], sum[4], sum[5]);
+        return new RestaurantStats(restaurantId, start, end, totals, days);
+    }
+
+    public List<ClaimStats> getListingStats(Long restaurantId) {
+        return rollups.restaurantListings(restaurantId);
+    }
+
+    public ClaimStats getListingStat(Long listingId) {
+        return rollups.listing(listingId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.unibite.project.restaurants.dto;
+
+import com.unibite.project.claims.ClaimStatus;
+
+import java.util.List;
+import java.util.Map;
+
+public class DashboardResponse {
+    public Long restaurantId;
+    public Map<ClaimStatus, Long> statusCounts;
+    public List<ListingDashboard> listings;
+
+    public DashboardResponse(Long restaurantId, Map<ClaimStatus, Long> statusCounts, List<ListingDashboard> listings) {
+        this.restaurantId = restaurantId;
+        this.statusCounts = statusCounts;
+        this.listings = listings;
+    }
+}
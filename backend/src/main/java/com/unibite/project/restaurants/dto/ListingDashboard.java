@@ -0,0 +1,20 @@
+package com.unibite.project.restaurants.dto;
+
+import com.unibite.project.claims.Claim;
+import com.unibite.project.claims.ClaimStatus;
+import com.unibite.project.listings.FoodListing;
+
+import java.util.List;
+import java.util.Map;
+
+public class ListingDashboard {
+    public FoodListing listing;
+    public Map<ClaimStatus, Long> statusCounts;
+    public List<Claim> claims;
+
+    public ListingDashboard(FoodListing listing, Map<ClaimStatus, Long> statusCounts, List<Claim> claims) {
+        this.listing = listing;
+        this.statusCounts = statusCounts;
+        this.claims = claims;
+    }
+}
@@ -0,0 +1,22 @@
+package com.unibite.project.restaurants.dto;
+
+import com.unibite.project.claims.dto.ClaimStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class RestaurantStats {
+    public Long restaurantId;
+    public LocalDate from;
+    public LocalDate to;
+    public ClaimStats totals;
+    public List<ClaimStats> days;
+
+    public RestaurantStats(Long restaurantId, LocalDate from, LocalDate to, ClaimStats totals, List<ClaimStats> days) {
+        this.restaurantId = restaurantId;
+        this.from = from;
+        this.to = to;
+        this.totals = totals;
+        this.days = days;
+    }
+}
@@ -0,0 +1,7 @@
+package com.unibite.project.users;
+
+// Projection for the claim quota: just the per-student daily limit.
+public interface ClaimLimit {
+    Long getId();
+    Integer getDailyClaimLimit();
+}
@@ -0,0 +1,7 @@
+package com.unibite.project.users;
+
+// Projection for listing creation: the restaurant's map pin, if it set one.
+public interface RestaurantLocation {
+    Double getLatitude();
+    Double getLongitude();
+}
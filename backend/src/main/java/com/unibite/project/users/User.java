@@ -1,5 +1,6 @@
 package com.unibite.project.users;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.Instant;
 
@@ -14,6 +15,8 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
 
+    // Accepted on input but never serialized; Profile exposes a user's own qrToken
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String passwordHash;
 
@@ -24,8 +27,17 @@ public class User {
 
     private String phone;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String qrToken;
 
+    private Integer dailyClaimLimit; // null: the configured default applies
+
+    // Restaurants: where listings are picked up unless a listing says otherwise
+    private String address;
+    private String mapLink;
+    private Double latitude;
+    private Double longitude;
+
     private Instant createdAt = Instant.now();
 
     public User() {}
@@ -58,5 +70,20 @@ public class User {
     public String getQrToken() { return qrToken; }
     public void setQrToken(String qrToken) { this.qrToken = qrToken; }
 
+    public Integer getDailyClaimLimit() { return dailyClaimLimit; }
+    public void setDailyClaimLimit(Integer dailyClaimLimit) { this.dailyClaimLimit = dailyClaimLimit; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getMapLink() { return mapLink; }
+    public void setMapLink(String mapLink) { this.mapLink = mapLink; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public Instant getCreatedAt() { return createdAt; }
 }
@@ -1,16 +1,27 @@
 package com.unibite.project.users;
 
+import com.unibite.project.auth.SessionAuthFilter;
+import com.unibite.project.users.dto.DirectoryEntry;
+import com.unibite.project.users.dto.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserService userService;
+    private final UserDirectory userDirectory;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserDirectory userDirectory) {
         this.userService = userService;
+        this.userDirectory = userDirectory;
     }
 
     @PostMapping("/test-create")
@@ -18,8 +29,30 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    // Public fields only, as in the directory; accounts are never listed whole
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public List<DirectoryEntry> getAllUsers() {
+        return userDirectory.all();
+    }
+
+    @GetMapping("/me")
+    public Profile me(@RequestAttribute(name = SessionAuthFilter.USER_ID_ATTRIBUTE, required = false) Long userId) {
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in required");
+        }
+        return userService.getProfile(userId);
+    }
+
+    // id -> role/displayName only; ?ids=1,2,3 for a batch lookup
+    @GetMapping("/directory")
+    public ResponseEntity<List<DirectoryEntry>> directory(@RequestParam(required = false) Set<Long> ids,
+                                                          WebRequest request) {
+        String etag = "\"users-" + userDirectory.version() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<DirectoryEntry> entries = ids == null ? userDirectory.all() : userDirectory.lookup(ids);
+        return ResponseEntity.ok().eTag(etag).body(entries);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.unibite.project.users;
+
+import com.unibite.project.users.dto.DirectoryEntry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory id -> (role, displayName) map. Loaded once from a projection and
+// refreshed per user on register/update; every change bumps the version.
+@Component
+public class UserDirectory {
+
+    private final UserRepository userRepo;
+
+    private final ConcurrentHashMap<Long, DirectoryEntry> entries = new ConcurrentHashMap<>();
+    // Seeded from the clock so versions never repeat across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public UserDirectory(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    @PostConstruct
+    public void load() {
+        userRepo.findAllProjectedBy().forEach(this::put);
+        version.incrementAndGet();
+    }
+
+    public void refresh(Long userId) {
+        userRepo.findSummaryById(userId).ifPresentOrElse(this::put, () -> entries.remove(userId));
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public List<DirectoryEntry> all() {
+        return List.copyOf(entries.values());
+    }
+
+    public List<DirectoryEntry> lookup(Collection<Long> ids) {
+        return ids.stream()
+                .map(entries::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void put(UserSummary user) {
+        entries.put(user.getId(), new DirectoryEntry(user.getId(), user.getRole(), user.getDisplayName()));
+    }
+}
@@ -1,9 +1,20 @@
 package com.unibite.project.users;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByQrToken(String qrToken);
+
+    List<UserSummary> findAllProjectedBy();
+    Optional<UserSummary> findSummaryById(Long id);
+
+    List<ClaimLimit> findByDailyClaimLimitIsNotNull();
+    Optional<ClaimLimit> findClaimLimitById(Long id);
+
+    Optional<RestaurantLocation> findLocationById(Long id);
 }
@@ -1,15 +1,17 @@
 package com.unibite.project.users;
 
+import com.unibite.project.users.dto.Profile;
 import org.springframework.stereotype.Service;
-import java.util.List;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserDirectory userDirectory) {
         this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
     }
 
     public User createUser(User user) {
@@ -19,10 +21,14 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDirectory.refresh(saved.getId());
+        return saved;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public Profile getProfile(Long userId) {
+        return userRepository.findById(userId)
+                .map(Profile::new)
+                .orElseThrow(() -> new RuntimeException("User not found"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.unibite.project.users;
+
+// Projection for the user directory: never selects passwordHash or qrToken.
+public interface UserSummary {
+    Long getId();
+    String getRole();
+    String getDisplayName();
+}
@@ -0,0 +1,13 @@
+package com.unibite.project.users.dto;
+
+public class DirectoryEntry {
+    public final Long id;
+    public final String role;
+    public final String displayName;
+
+    public DirectoryEntry(Long id, String role, String displayName) {
+        this.id = id;
+        this.role = role;
+        this.displayName = displayName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.unibite.project.users.dto;
+
+import com.unibite.project.users.User;
+
+// The signed-in user's own account, including the QR token other users never see
+public class Profile {
+    public final Long id;
+    public final String email;
+    public final String role;
+    public final String displayName;
+    public final String phone;
+    public final String qrToken;
+
+    public Profile(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.displayName = user.getDisplayName();
+        this.phone = user.getPhone();
+        this.qrToken = user.getQrToken();
+    }
+}
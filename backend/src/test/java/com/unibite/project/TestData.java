@@ -0,0 +1,56 @@
+package com.unibite.project;
+
+import com.unibite.project.claims.ClaimService;
+import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.claims.dto.CreateClaimRequest;
+import com.unibite.project.listings.FoodListing;
+import com.unibite.project.listings.FoodListingService;
+import org.springframework.boot.test.context.TestComponent;
+
+// Listings and claims made through the real services, for @SpringBootTest
+// classes that @Import(TestData.class).
+@TestComponent
+public class TestData {
+
+	private final FoodListingService listingService;
+	private final ClaimService claimService;
+
+	public TestData(FoodListingService listingService, ClaimService claimService) {
+		this.listingService = listingService;
+		this.claimService = claimService;
+	}
+
+	// Unsaved; tests set whatever else they need before create(listing)
+	public static FoodListing listing(long restaurantId, String title, int quantity, int perPersonLimit) {
+		FoodListing listing = new FoodListing();
+		listing.setRestaurantId(restaurantId);
+		listing.setTitle(title);
+		listing.setTotalQuantity(quantity);
+		listing.setPerPersonLimit(perPersonLimit);
+		return listing;
+	}
+
+	public static CreateClaimRequest claimRequest(Long listingId, long studentId, int quantity) {
+		CreateClaimRequest req = new CreateClaimRequest();
+		req.listingId = listingId;
+		req.studentId = studentId;
+		req.quantity = quantity;
+		return req;
+	}
+
+	public Long create(FoodListing listing) {
+		return listingService.create(listing).getId();
+	}
+
+	public Long createListing(long restaurantId, String title, int quantity, int perPersonLimit) {
+		return create(listing(restaurantId, title, quantity, perPersonLimit));
+	}
+
+	public ClaimResponse claim(Long listingId, long studentId) {
+		return claim(listingId, studentId, 1);
+	}
+
+	public ClaimResponse claim(Long listingId, long studentId, int quantity) {
+		return claimService.createClaim(claimRequest(listingId, studentId, quantity));
+	}
+}
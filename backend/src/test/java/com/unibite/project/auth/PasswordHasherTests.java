@@ -0,0 +1,89 @@
+package com.unibite.project.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTests {
+
+	private PasswordHasher hasher;
+
+	@AfterEach
+	void shutdown() {
+		hasher.shutdown();
+	}
+
+	@Test
+	void legacyPlaintextPasswordsStillMatchAndAreFlaggedForRehash() {
+		hasher = new PasswordHasher(4, 1, 4, 5000);
+
+		assertThat(hasher.matches("secret1", "secret1")).isTrue();
+		assertThat(hasher.matches("wrong", "secret1")).isFalse();
+		assertThat(hasher.needsRehash("secret1")).isTrue();
+
+		String hash = hasher.hash("secret1");
+		assertThat(hasher.matches("secret1", hash)).isTrue();
+		assertThat(hasher.needsRehash(hash)).isFalse();
+	}
+
+	@Test
+	void weakerHashesAreFlaggedForRehash() {
+		hasher = new PasswordHasher(4, 1, 4, 5000);
+		String weak = hasher.hash("secret1");
+		hasher.shutdown();
+
+		hasher = new PasswordHasher(5, 1, 4, 5000);
+		assertThat(hasher.needsRehash(weak)).isTrue();
+		assertThat(hasher.matches("secret1", weak)).isTrue();
+	}
+
+	@Test
+	void fullQueueShedsWith503() throws InterruptedException {
+		hasher = new PasswordHasher(12, 1, 1, 30_000);
+		int callers = 6;
+		ExecutorService pool = Executors.newFixedThreadPool(callers);
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return hasher.hash("secret1");
+			}));
+		}
+		start.countDown();
+
+		int hashed = 0;
+		int shed = 0;
+		for (Future<String> result : results) {
+			try {
+				result.get();
+				hashed++;
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).isInstanceOf(ResponseStatusException.class);
+				assertThat(((ResponseStatusException) e.getCause()).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+				shed++;
+			}
+		}
+		pool.shutdown();
+
+		assertThat(hashed).isGreaterThanOrEqualTo(2);
+		assertThat(shed).isGreaterThan(0);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		hasher.bindTo(registry);
+		assertThat(registry.get("unibite.auth.hash.shed").tag("cause", "queue_full").functionCounter().count())
+				.isEqualTo(shed);
+	}
+}
@@ -0,0 +1,58 @@
+package com.unibite.project.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionCacheTests {
+
+	private final SessionRepository sessionRepo = mock(SessionRepository.class);
+	private final SessionCache cache = new SessionCache(sessionRepo, Duration.ofMinutes(5), 2);
+
+	@Test
+	void warmTokensDoNotTouchTheRepository() {
+		when(sessionRepo.findById("t1")).thenReturn(Optional.of(session("t1", 7L, Instant.now().plusSeconds(60))));
+
+		assertThat(cache.resolve("t1")).contains(7L);
+		assertThat(cache.resolve("t1")).contains(7L);
+		verify(sessionRepo, times(1)).findById("t1");
+
+		cache.invalidate("t1");
+		assertThat(cache.resolve("t1")).contains(7L);
+		verify(sessionRepo, times(2)).findById("t1");
+	}
+
+	@Test
+	void expiredAndUnknownTokensAreRejected() {
+		when(sessionRepo.findById("old")).thenReturn(Optional.of(session("old", 1L, Instant.now().minusSeconds(1))));
+		when(sessionRepo.findById("missing")).thenReturn(Optional.empty());
+
+		assertThat(cache.resolve("old")).isEmpty();
+		assertThat(cache.resolve("missing")).isEmpty();
+	}
+
+	@Test
+	void oldestEntriesAreEvictedPastMaxSize() {
+		for (String token : new String[]{"a", "b", "c"}) {
+			when(sessionRepo.findById(token)).thenReturn(Optional.of(session(token, 1L, null)));
+			cache.resolve(token);
+		}
+
+		cache.resolve("c");
+		cache.resolve("a");
+		verify(sessionRepo, times(1)).findById("c");
+		verify(sessionRepo, times(2)).findById("a");
+	}
+
+	private Session session(String token, Long userId, Instant expiresAt) {
+		return new Session(token, userId, expiresAt);
+	}
+}
@@ -0,0 +1,98 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.TestData;
+import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.common.CursorPage;
+import com.unibite.project.listings.InventoryLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/claim-archiver-tests.db",
+		"unibite.claims.archive.enabled=false",
+		"unibite.claims.archive.chunk-size=2"
+})
+@Import(TestData.class)
+class ClaimArchiverTests {
+
+	@Autowired
+	private ClaimArchiver archiver;
+
+	@Autowired
+	private ClaimService claimService;
+
+	@Autowired
+	private ClaimRepository claimRepo;
+
+	@Autowired
+	private ArchivedClaimRepository archiveRepo;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private InventoryLedger inventory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void finishedClaimsMoveToTheArchiveAndStayReadable() {
+		Long listingId = testData.createListing(1L, "Archive me", 10, 1);
+		long studentId = 9_000 + System.nanoTime() % 1_000;
+		ClaimResponse redeemed = testData.claim(listingId, studentId);
+		ClaimResponse canceled = testData.claim(listingId, studentId);
+		ClaimResponse old = testData.claim(listingId, studentId);
+		ClaimResponse active = testData.claim(listingId, studentId + 1);
+		ClaimResponse newest = testData.claim(listingId, studentId + 1);
+		claimService.redeemByToken(redeemed.qrToken);
+		claimService.redeemByToken(old.qrToken);
+		claimService.cancelClaim(canceled.id);
+		claimService.cancelClaim(newest.id);
+
+		assertThat(archiver.archive(Instant.now().plusSeconds(60))).isGreaterThanOrEqualTo(3);
+
+		assertThat(claimRepo.findByListingId(listingId)).extracting(Claim::getId)
+				.containsExactly(active.id, newest.id);
+		assertThat(archiveRepo.findByListingId(listingId)).hasSize(3);
+
+		assertThat(claimService.getClaimsByListing(listingId)).extracting(Claim::getId)
+				.containsExactly(redeemed.id, canceled.id, old.id, active.id, newest.id);
+		assertThat(claimService.getClaimsByStudent(studentId)).extracting(Claim::getStatus)
+				.containsExactly(ClaimStatus.REDEEMED, ClaimStatus.CANCELED, ClaimStatus.REDEEMED);
+
+		CursorPage<Claim> first = claimService.getClaimPageByStudent(studentId, null, null, null, null, 2);
+		assertThat(first.items).extracting(Claim::getId).containsExactly(old.id, canceled.id);
+		CursorPage<Claim> second = claimService.getClaimPageByStudent(studentId, null, null, null, first.nextCursor, 2);
+		assertThat(second.items).extracting(Claim::getId).containsExactly(redeemed.id);
+		assertThat(second.nextCursor).isNull();
+
+		assertThatThrownBy(() -> claimService.redeemByToken(redeemed.qrToken)).hasMessage("Already redeemed");
+		assertThatThrownBy(() -> claimService.cancelClaim(canceled.id)).hasMessage("Claim already canceled");
+	}
+
+	@Test
+	void startupReconcileCountsArchivedClaimsAgainstTheStock() {
+		Long listingId = testData.createListing(1L, "Crashed", 10, 1);
+		long studentId = 8_000 + System.nanoTime() % 1_000;
+		claimService.redeemByToken(testData.claim(listingId, studentId).qrToken);
+		claimService.cancelClaim(testData.claim(listingId, studentId).id);
+		testData.claim(listingId, studentId + 1);
+		archiver.archive(Instant.now().plusSeconds(60));
+
+		// As if the process died before the write-behind flush
+		jdbcTemplate.update("UPDATE food_listings SET remaining_quantity = total_quantity WHERE id = ?", listingId);
+		inventory.reconcile();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT remaining_quantity FROM food_listings WHERE id = ?",
+				Integer.class, listingId)).isEqualTo(8);
+	}
+}
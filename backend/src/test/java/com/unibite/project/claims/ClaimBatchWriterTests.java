@@ -0,0 +1,66 @@
+package com.unibite.project.claims;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClaimBatchWriterTests {
+
+	private final ClaimRepository claimRepo = mock(ClaimRepository.class);
+	private final ClaimBatchWriter writer = new ClaimBatchWriter(claimRepo, mock(ClaimRollups.class),
+			mock(PlatformTransactionManager.class), 1, 0, 200);
+
+	@AfterEach
+	void stop() throws InterruptedException {
+		writer.stop();
+	}
+
+	@Test
+	void aClaimStillQueuedAtTheDeadlineIsWithdrawn() throws Exception {
+		CountDownLatch committing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(claimRepo.save(any())).thenAnswer(invocation -> {
+			committing.countDown();
+			release.await();
+			return invocation.getArgument(0);
+		});
+		writer.start();
+
+		CompletableFuture<Claim> first = CompletableFuture.supplyAsync(() -> writer.write(new Claim()));
+		assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// The writer is busy with the first batch, so this one never leaves the queue
+		assertThatThrownBy(() -> writer.write(new Claim()))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+		// The first was already in a batch past the deadline and still gets its answer
+		Thread.sleep(300);
+		release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+		verify(claimRepo, times(1)).save(any());
+	}
+
+	@Test
+	void waitersAreFailedWhenTheWriterThreadDies() {
+		when(claimRepo.save(any())).thenThrow(new StackOverflowError());
+		writer.start();
+
+		assertThatThrownBy(() -> writer.write(new Claim())).hasMessage("Claim writer is shutting down");
+		assertThatThrownBy(() -> writer.write(new Claim())).hasMessage("Claim writer is shutting down");
+	}
+}
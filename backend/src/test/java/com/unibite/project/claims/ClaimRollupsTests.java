@@ -0,0 +1,70 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.TestData;
+import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.claims.dto.ClaimStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/claim-rollups-tests.db")
+@Import(TestData.class)
+class ClaimRollupsTests {
+
+	@Autowired
+	private ClaimRollups rollups;
+
+	@Autowired
+	private ClaimService claimService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void claimWritesKeepTheRollupsCurrentAndRebuildAgrees() {
+		long restaurantId = 70_000 + System.nanoTime() % 10_000;
+		Long soup = testData.createListing(restaurantId, "Rollup", 10, 2);
+		Long bread = testData.createListing(restaurantId, "Rollup", 10, 2);
+		ClaimResponse redeemed = testData.claim(soup, 1L, 2);
+		ClaimResponse canceled = testData.claim(soup, 2L);
+		testData.claim(soup, 3L);
+		testData.claim(bread, 4L, 2);
+		claimService.redeemByToken(redeemed.qrToken);
+		claimService.cancelClaim(canceled.id);
+
+		LocalDate today = LocalDate.now(ZoneId.of("America/Winnipeg"));
+		List<ClaimStats> days = rollups.restaurantDays(restaurantId, today.minusDays(1), today);
+		assertThat(days).singleElement().satisfies(day -> {
+			assertThat(day.day).isEqualTo(today.toString());
+			assertThat(day.claims).isEqualTo(4);
+			assertThat(day.meals).isEqualTo(6);
+			assertThat(day.redeemedMeals).isEqualTo(2);
+			assertThat(day.canceledClaims).isEqualTo(1);
+			assertThat(day.outstanding).isEqualTo(2);
+		});
+		ClaimStats soupStats = rollups.listing(soup);
+		assertThat(soupStats.claims).isEqualTo(3);
+		assertThat(soupStats.noShowRate).isEqualTo(0.5);
+
+		jdbcTemplate.update("DELETE FROM listing_stats WHERE listing_id = ?", soup);
+		jdbcTemplate.update("UPDATE restaurant_daily_stats SET claims = 99 WHERE restaurant_id = ?", restaurantId);
+		rollups.rebuild();
+
+		assertThat(rollups.restaurantDays(restaurantId, today, today)).singleElement()
+				.satisfies(day -> assertThat(day.claims).isEqualTo(4));
+		assertThat(rollups.listing(soup)).usingRecursiveComparison().isEqualTo(soupStats);
+		assertThat(rollups.restaurantListings(restaurantId)).extracting(stats -> stats.listingId)
+				.containsExactly(soup, bread);
+	}
+}
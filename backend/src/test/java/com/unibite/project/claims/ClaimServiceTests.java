@@ -0,0 +1,205 @@
+package com.unibite.project.claims;
+
+import com.unibite.project.TestData;
+import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.listings.InventoryLedger;
+import com.unibite.project.common.QrTokens;
+import com.unibite.project.users.User;
+import com.unibite.project.users.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/claim-service-tests.db")
+@Import(TestData.class)
+class ClaimServiceTests {
+
+	@Autowired
+	private ClaimService claimService;
+
+	@Autowired
+	private ClaimBatchWriter claimWriter;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private InventoryLedger inventory;
+
+	@Autowired
+	private RedemptionIndex redemptionIndex;
+
+	@Test
+	void concurrentClaimsAreGroupCommittedWithoutOverselling() throws Exception {
+		Long listingId = createListing(150);
+
+		int claimers = 300;
+		ExecutorService pool = Executors.newFixedThreadPool(100);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<ClaimResponse>> results = new ArrayList<>();
+		for (int i = 0; i < claimers; i++) {
+			long studentId = 1_000 + i;
+			results.add(pool.submit(() -> {
+				start.await();
+				return testData.claim(listingId, studentId);
+			}));
+		}
+		start.countDown();
+
+		int created = 0;
+		int rejected = 0;
+		for (Future<ClaimResponse> result : results) {
+			try {
+				assertThat(result.get(30, TimeUnit.SECONDS).id).isNotNull();
+				created++;
+			} catch (ExecutionException e) {
+				assertThat(e.getCause()).hasMessage("Listing is sold out");
+				rejected++;
+			}
+		}
+		pool.shutdown();
+
+		assertThat(created).isEqualTo(150);
+		assertThat(rejected).isEqualTo(150);
+		assertThat(claimService.getClaimsByListing(listingId)).hasSize(150);
+		assertThat(claimWriter.stats().maxBatchSize()).isGreaterThan(1);
+	}
+
+	@Test
+	void typedTokensRedeemTheMatchingActiveClaim() {
+		Long listingId = createListing(10);
+		User student = new User("redeem-" + System.nanoTime() + "@test.ca", "secret", "STUDENT", null);
+		student.setQrToken(QrTokens.newUserToken());
+		student = userRepo.save(student);
+
+		ClaimResponse first = testData.claim(listingId, student.getId());
+		ClaimResponse second = testData.claim(listingId, student.getId());
+		assertThat(first.qrToken).startsWith(QrTokens.CLAIM_PREFIX);
+
+		Claim byClaimToken = claimService.redeemByToken(first.qrToken);
+		assertThat(byClaimToken.getId()).isEqualTo(first.id);
+		assertThat(byClaimToken.getStatus()).isEqualTo(ClaimStatus.REDEEMED);
+		assertThatThrownBy(() -> claimService.redeemByToken(first.qrToken)).hasMessage("Already redeemed");
+
+		Claim byUserToken = claimService.redeemByToken(student.getQrToken());
+		assertThat(byUserToken.getId()).isEqualTo(second.id);
+		assertThatThrownBy(() -> claimService.redeemByToken(QrTokens.newClaimToken())).hasMessage("Invalid QR token");
+		assertThat(claimService.getClaimsByListing(listingId))
+				.allMatch(claim -> claim.getStatus() == ClaimStatus.REDEEMED);
+	}
+
+	@Test
+	void noShowsDroppedFromTheIndexStillRedeem() {
+		Long listingId = createListing(5);
+		ClaimResponse claim = testData.claim(listingId, 4_242L);
+
+		redemptionIndex.sweep(Instant.now().plusSeconds(60));
+		assertThat(redemptionIndex.size()).isZero();
+
+		assertThat(claimService.redeemByToken(claim.qrToken).getStatus()).isEqualTo(ClaimStatus.REDEEMED);
+	}
+
+	@Test
+	void rejectionsAreCountedByReason() {
+		Long listingId = createListing(1);
+		double soldOut = rejections("sold_out");
+		double overLimit = rejections("over_limit");
+
+		testData.claim(listingId, 2_000L);
+		assertThatThrownBy(() -> testData.claim(listingId, 2_001L)).hasMessage("Listing is sold out");
+
+		Long tooMany = createListing(5);
+		assertThatThrownBy(() -> testData.claim(tooMany, 2_002L, 2)).hasMessage("Quantity exceeds per-person limit");
+
+		assertThat(rejections("sold_out")).isEqualTo(soldOut + 1);
+		assertThat(rejections("over_limit")).isEqualTo(overLimit + 1);
+	}
+
+	@Test
+	void retriesWithTheSameIdempotencyKeyClaimOnce() throws Exception {
+		Long listingId = createListing(10);
+		String key = "retry-" + System.nanoTime();
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<ClaimResponse>> attempts = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			attempts.add(pool.submit(() -> {
+				start.await();
+				return claimService.createClaim(TestData.claimRequest(listingId, 3_000L, 1), key);
+			}));
+		}
+		start.countDown();
+		List<Long> ids = new ArrayList<>();
+		for (Future<ClaimResponse> attempt : attempts) ids.add(attempt.get(30, TimeUnit.SECONDS).id);
+		pool.shutdown();
+
+		assertThat(ids).containsOnly(ids.get(0));
+		assertThat(inventory.remaining(listingId)).isEqualTo(9);
+		assertThat(claimService.getClaimsByListing(listingId)).hasSize(1);
+
+		assertThatThrownBy(() -> claimService.createClaim(TestData.claimRequest(createListing(10), 3_000L, 1), key))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT));
+
+		// As after a restart: only the key stored on the claim row is left
+		((Map<?, ?>) ReflectionTestUtils.getField(idempotencyStore, "entries")).clear();
+		assertThat(claimService.createClaim(TestData.claimRequest(listingId, 3_000L, 1), key).id).isEqualTo(ids.get(0));
+		assertThat(inventory.remaining(listingId)).isEqualTo(9);
+	}
+
+	@Test
+	void dailyLimitIsCheckedBeforeTheListingAndFreedByCancel() {
+		User student = new User("quota-" + System.nanoTime() + "@test.ca", "secret", "STUDENT", null);
+		student.setDailyClaimLimit(2);
+		Long studentId = userRepo.save(student).getId();
+		Long listingId = createListing(10);
+		double dailyLimit = rejections("daily_limit");
+
+		ClaimResponse first = testData.claim(listingId, studentId);
+		testData.claim(listingId, studentId);
+		assertThatThrownBy(() -> testData.claim(listingId, studentId)).hasMessage("Daily claim limit reached");
+		assertThat(inventory.remaining(listingId)).isEqualTo(8);
+		assertThat(rejections("daily_limit")).isEqualTo(dailyLimit + 1);
+
+		claimService.cancelClaim(first.id);
+		testData.claim(listingId, studentId);
+		assertThat(inventory.remaining(listingId)).isEqualTo(8);
+	}
+
+	private double rejections(String reason) {
+		return meterRegistry.get("unibite.claims.rejected").tag("reason", reason).counter().count();
+	}
+
+	private Long createListing(int quantity) {
+		return testData.createListing(1L, "Flash drop", quantity, 1);
+	}
+}
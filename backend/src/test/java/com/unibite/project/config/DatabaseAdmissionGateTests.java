@@ -0,0 +1,55 @@
+package com.unibite.project.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DatabaseAdmissionGateTests {
+
+	private final DataSource pool = mock(DataSource.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void permitIsHeldUntilTheConnectionIsClosed() throws SQLException {
+		Connection physical = mock(Connection.class);
+		when(pool.getConnection()).thenReturn(physical);
+		DatabaseAdmissionGate gate = new DatabaseAdmissionGate(pool, "read", 1, Duration.ofMillis(20), registry);
+
+		Connection first = gate.getConnection();
+		assertThatThrownBy(gate::getConnection)
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+		first.close();
+		first.close();
+		gate.getConnection().close();
+
+		verify(physical, times(2)).close();
+		assertThat(registry.get("unibite.db.gate.rejected").counter().count()).isEqualTo(1);
+		assertThat(registry.get("unibite.db.gate.in_use").gauge().value()).isZero();
+		assertThat(registry.get("unibite.db.gate.wait").timer().count()).isEqualTo(3);
+	}
+
+	@Test
+	void failedCheckoutGivesThePermitBack() throws SQLException {
+		when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+		DatabaseAdmissionGate gate = new DatabaseAdmissionGate(pool, "write", 1, Duration.ofMillis(20), registry);
+
+		assertThatThrownBy(gate::getConnection).isInstanceOf(SQLException.class);
+		assertThatThrownBy(gate::getConnection).isInstanceOf(SQLException.class).hasMessage("pool exhausted");
+		assertThat(registry.get("unibite.db.gate.rejected").counter().count()).isZero();
+	}
+}
@@ -0,0 +1,51 @@
+package com.unibite.project.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/rate-limit-filter-tests.db",
+		"unibite.ratelimit.auth.per-second=0.01",
+		"unibite.ratelimit.auth.burst=1"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTests {
+
+	private static final String ORIGIN = "http://localhost:5173";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void rejectionsCarryCorsHeadersSoBrowsersSeeThe429() throws Exception {
+		mvc.perform(post("/api/auth/logout").header("X-Session-Token", "signed-out").header("Origin", ORIGIN))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Access-Control-Allow-Origin", "*"));
+
+		mvc.perform(post("/api/auth/logout").header("X-Session-Token", "signed-out").header("Origin", ORIGIN))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists("Retry-After"))
+				.andExpect(header().string("Access-Control-Allow-Origin", "*"))
+				.andExpect(header().string("Access-Control-Expose-Headers", "ETag, Retry-After"));
+	}
+
+	@Test
+	void guessedSessionTokensAreThrottledByAddress() throws Exception {
+		mvc.perform(get("/api/listings").header("X-Session-Token", "guess-1")
+						.with(request -> { request.setRemoteAddr("10.0.0.2"); return request; }))
+				.andExpect(status().isUnauthorized());
+
+		mvc.perform(get("/api/listings").header("X-Session-Token", "guess-2")
+						.with(request -> { request.setRemoteAddr("10.0.0.2"); return request; }))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists("Retry-After"));
+	}
+}
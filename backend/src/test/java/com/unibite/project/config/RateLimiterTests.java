@@ -0,0 +1,50 @@
+package com.unibite.project.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private final RateLimiter limiter = new RateLimiter(Map.of(
+			RateLimiter.Group.CLAIMS, new RateLimiter.Limit(2, 3),
+			RateLimiter.Group.READS, new RateLimiter.Limit(100, 100)));
+
+	@Test
+	void burstIsAllowedThenRequestsWaitForTheRate() {
+		long now = 50 * SECOND;
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.acquire(RateLimiter.Group.CLAIMS, "user:1", now)).isZero();
+		}
+		assertThat(limiter.acquire(RateLimiter.Group.CLAIMS, "user:1", now)).isEqualTo(SECOND / 2);
+
+		// Other clients and other groups have their own buckets
+		assertThat(limiter.acquire(RateLimiter.Group.CLAIMS, "user:2", now)).isZero();
+		assertThat(limiter.acquire(RateLimiter.Group.READS, "user:1", now)).isZero();
+
+		assertThat(limiter.acquire(RateLimiter.Group.CLAIMS, "user:1", now + SECOND / 2)).isZero();
+		assertThat(limiter.acquire(RateLimiter.Group.CLAIMS, "user:1", now + SECOND / 2)).isPositive();
+	}
+
+	@Test
+	void refilledBucketsAreSweptAndRejectionsCounted() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		limiter.bindTo(registry);
+		long now = 50 * SECOND;
+		for (int i = 0; i < 4; i++) limiter.acquire(RateLimiter.Group.CLAIMS, "addr:10.0.0.1", now);
+		limiter.acquire(RateLimiter.Group.READS, "addr:10.0.0.2", now);
+
+		assertThat(registry.get("unibite.ratelimit.rejected").tag("group", "claims").functionCounter().count())
+				.isEqualTo(1);
+
+		limiter.sweep(now + SECOND / 10);
+		assertThat(limiter.size()).isEqualTo(1);
+		limiter.sweep(now + 2 * SECOND);
+		assertThat(limiter.size()).isZero();
+	}
+}
@@ -0,0 +1,98 @@
+package com.unibite.project.config;
+
+import com.unibite.project.claims.ClaimRepository;
+import com.unibite.project.claims.ClaimService;
+import com.unibite.project.listings.FoodListingService;
+import com.unibite.project.users.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/datasource-tests.db")
+class SqliteDataSourceConfigTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ClaimService claimService;
+
+	@Autowired
+	private ClaimRepository claimRepo;
+
+	@Autowired
+	private FoodListingService listingService;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Test
+	void readOnlyTransactionsUseTheReaderPool() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+		Integer readerQueryOnly = readOnly.execute(status -> queryOnly());
+		Integer writerQueryOnly = readWrite.execute(status -> queryOnly());
+		assertThat(readerQueryOnly).isEqualTo(1);
+		assertThat(writerQueryOnly).isEqualTo(0);
+
+		assertThatThrownBy(() -> readOnly.executeWithoutResult(status ->
+				jdbcTemplate.update("UPDATE food_listings SET remaining_quantity = 0 WHERE id = -1")))
+				.isNotNull();
+	}
+
+	@Test
+	void historyAndLoginReadsDontWaitForTheWriter() throws Exception {
+		CountDownLatch writerHeld = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+				new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+					queryOnly();
+					writerHeld.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}));
+		try {
+			assertThat(writerHeld.await(5, TimeUnit.SECONDS)).isTrue();
+
+			// Each would otherwise queue for the single writer connection
+			CompletableFuture.runAsync(() -> {
+				claimService.getClaimsByStudent(1L);
+				claimService.getClaimsByListing(1L);
+				listingService.getByRestaurant(1L);
+				userRepo.findByEmail("nobody@test.ca");
+				claimRepo.findByQrToken("none");
+				claimRepo.findByStudentIdAndIdempotencyKey(1L, "none");
+			}).get(5, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			writer.get(5, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	void connectionsUseWriteAheadLogging() {
+		assertThat(jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class)).isEqualToIgnoringCase("wal");
+	}
+
+	private Integer queryOnly() {
+		return jdbcTemplate.queryForObject("PRAGMA query_only", Integer.class);
+	}
+}
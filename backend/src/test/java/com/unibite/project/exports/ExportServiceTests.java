@@ -0,0 +1,139 @@
+package com.unibite.project.exports;
+
+import com.unibite.project.TestData;
+import com.unibite.project.claims.ClaimArchiver;
+import com.unibite.project.claims.ClaimService;
+import com.unibite.project.claims.dto.ClaimResponse;
+import com.unibite.project.listings.FoodListing;
+import com.unibite.project.listings.FoodListingRepository;
+import com.unibite.project.listings.ListingImporter;
+import com.unibite.project.listings.dto.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/export-service-tests.db",
+		"unibite.claims.archive.enabled=false"
+})
+@Import(TestData.class)
+class ExportServiceTests {
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ClaimService claimService;
+
+	@Autowired
+	private ClaimArchiver archiver;
+
+	@Autowired
+	private ListingImporter importer;
+
+	@Autowired
+	private FoodListingRepository listingRepo;
+
+	@Test
+	void claimsExportCoversHotAndArchivedRowsOfOneRestaurant() throws IOException {
+		long restaurantId = 500 + System.nanoTime() % 10_000;
+		Long listingId = testData.createListing(restaurantId, "Chili, vegan", 4, 1);
+		testData.createListing(restaurantId + 1, "Elsewhere", 4, 1);
+		ClaimResponse redeemed = testData.claim(listingId, 1L);
+		claimService.redeemByToken(redeemed.qrToken);
+		testData.claim(listingId, 2L);
+		testData.claim(listingId, 3L);
+		archiver.archive(Instant.now().plusSeconds(60));
+
+		List<String> csv = lines(exportService.claims(restaurantId, null, null, ExportFormat.CSV, false), false);
+		assertThat(csv.get(0)).isEqualTo("id,listingId,restaurantId,studentId,quantity,status,claimedAt,redeemedAt,archived");
+		assertThat(csv).hasSize(4);
+		assertThat(csv).filteredOn(line -> line.startsWith(redeemed.id + ",")).singleElement()
+				.satisfies(line -> assertThat(line).contains(",REDEEMED,").endsWith(",true"));
+
+		List<String> ndjson = lines(exportService.claims(restaurantId, null, null, ExportFormat.NDJSON, true), true);
+		assertThat(ndjson).hasSize(3).allMatch(line -> line.startsWith("{\"id\":") && line.endsWith("}"));
+		assertThat(ndjson).anyMatch(line -> line.contains("\"redeemedAt\":null"));
+
+		List<String> none = lines(exportService.claims(restaurantId, Instant.now().plusSeconds(60), null,
+				ExportFormat.NDJSON, false), false);
+		assertThat(none).isEmpty();
+	}
+
+	@Test
+	void listingExportUsesTheImportColumns() throws IOException {
+		long restaurantId = 20_000 + System.nanoTime() % 10_000;
+		testData.createListing(restaurantId, "Chili, vegan", 4, 1);
+
+		List<String> csv = lines(exportService.listings(restaurantId, null, null, ExportFormat.CSV, true), true);
+		assertThat(csv).hasSize(2);
+		assertThat(csv.get(0)).startsWith("id,restaurantId,title,description,totalQuantity");
+		assertThat(csv.get(1)).contains("," + restaurantId + ",\"Chili, vegan\",,4,4,1,");
+	}
+
+	@Test
+	void listingExportReimportsAsNewListings() throws IOException {
+		long restaurantId = 30_000 + System.nanoTime() % 10_000;
+		FoodListing listing = TestData.listing(restaurantId, "Chili, vegan", 4, 1);
+		listing.setLatitude(49.8075);
+		listing.setLongitude(-97.1325);
+		Long originalId = testData.create(listing);
+
+		ByteArrayOutputStream export = new ByteArrayOutputStream();
+		exportService.listings(restaurantId, null, null, ExportFormat.CSV, false).writeTo(export);
+		ImportResult result = importer.importCsv(new ByteArrayInputStream(export.toByteArray()));
+
+		assertThat(result.imported).isEqualTo(1);
+		FoodListing copy = listingRepo.findById(result.rows.get(0).id).orElseThrow();
+		assertThat(copy.getId()).isNotEqualTo(originalId);
+		assertThat(copy.getTitle()).isEqualTo("Chili, vegan");
+		assertThat(copy.getRemainingQuantity()).isEqualTo(4);
+		assertThat(copy.getLatitude()).isEqualTo(49.8075);
+		assertThat(copy.getLongitude()).isEqualTo(-97.1325);
+	}
+
+	@Test
+	void exportsBeyondTheLimitAreTurnedAwayUntilOneFinishes() throws IOException {
+		StreamingResponseBody first = exportService.listings(1L, null, null, ExportFormat.CSV, false);
+		StreamingResponseBody second = exportService.listings(1L, null, null, ExportFormat.CSV, false);
+
+		assertThatThrownBy(() -> exportService.claims(1L, null, null, ExportFormat.CSV, false))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+		lines(first, false);
+		lines(exportService.claims(1L, null, null, ExportFormat.CSV, false), false);
+		lines(second, false);
+	}
+
+	private static List<String> lines(StreamingResponseBody body, boolean gzip) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.writeTo(out);
+		byte[] bytes = out.toByteArray();
+		if (gzip) {
+			try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+				bytes = in.readAllBytes();
+			}
+		}
+		String text = new String(bytes, StandardCharsets.UTF_8);
+		return text.isEmpty() ? List.of() : List.of(text.split("\r?\n"));
+	}
+}
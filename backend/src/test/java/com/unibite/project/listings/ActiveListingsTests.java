@@ -0,0 +1,97 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.TestData;
+import com.unibite.project.claims.ClaimService;
+import com.unibite.project.claims.dto.ClaimResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/active-listings-tests.db",
+		"unibite.listings.sold-out.retain=PT0S"
+})
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ActiveListingsTests {
+
+	@Autowired
+	private ActiveListings activeListings;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ClaimService claimService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private FoodListingRepository listingRepo;
+
+	@Test
+	void expiryChangesTheFeedEtag() throws Exception {
+		FoodListing listing = TestData.listing(1L, "Expiring", 3, 1);
+		listing.setAvailableUntil(Instant.now().plusSeconds(3600));
+		Long listingId = testData.create(listing);
+
+		String etag = mvc.perform(get("/api/listings/active")).andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		mvc.perform(get("/api/listings/active").header("If-None-Match", etag)).andExpect(status().isNotModified());
+
+		activeListings.expire(listingId);
+
+		String body = mvc.perform(get("/api/listings/active").header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(body).doesNotContain("\"id\":" + listingId + ",");
+		assertThat(activeListings.contains(listingId)).isFalse();
+	}
+
+	@Test
+	void sweptSoldOutListingsComeBackFromTheTableOnCancel() {
+		FoodListing listing = TestData.listing(1L, "Last portion", 1, 1);
+		listing.setAvailableUntil(Instant.now().plusSeconds(3600));
+		Long listingId = testData.create(listing);
+		ClaimResponse claim = testData.claim(listingId, 42L);
+		assertThat(activeListings.contains(listingId)).isFalse();
+		assertThat(soldOutGauge()).isGreaterThanOrEqualTo(1);
+
+		activeListings.sweep();
+		assertThat(soldOutGauge()).isZero();
+
+		claimService.cancelClaim(claim.id);
+		assertThat(activeListings.contains(listingId)).isTrue();
+	}
+
+	@Test
+	void listingsThatSellOutBeforeTheyAreAddedStayOutOfTheFeed() {
+		Long listingId = testData.create(TestData.listing(1L, "Gone on arrival", 1, 1));
+		testData.claim(listingId, 43L);
+
+		// The row as publishing saw it, before the claim took the last portion
+		FoodListing stale = listingRepo.findById(listingId).orElseThrow();
+		stale.setRemainingQuantity(1);
+		activeListings.add(stale);
+
+		assertThat(activeListings.contains(listingId)).isFalse();
+	}
+
+	private double soldOutGauge() {
+		return meterRegistry.get("unibite.listings.sold_out").gauge().value();
+	}
+}
@@ -0,0 +1,69 @@
+package com.unibite.project.listings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoGridTests {
+
+	// Around the University of Manitoba; 0.001 degrees of latitude is ~111 m
+	private static final double LAT = 49.8075;
+	private static final double LNG = -97.1325;
+
+	@Test
+	void nearFindsListingsInsideTheRadiusNearestFirst() {
+		GeoGrid grid = new GeoGrid(250);
+		grid.put(listing(1L, LAT + 0.004, LNG));
+		grid.put(listing(2L, LAT + 0.001, LNG));
+		grid.put(listing(3L, LAT, LNG + 0.002));
+		grid.put(listing(4L, LAT + 0.02, LNG));
+		grid.put(listing(5L, null, null));
+
+		List<GeoGrid.Hit> hits = grid.near(LAT, LNG, 500, 10);
+
+		assertThat(hits).extracting(hit -> hit.listing().getId()).containsExactly(2L, 3L, 1L);
+		assertThat(hits.get(0).distanceMeters()).isBetween(110.0, 112.0);
+		assertThat(grid.near(LAT, LNG, 500, 2)).hasSize(2);
+		assertThat(grid.size()).isEqualTo(4);
+
+		// Wider than the grid has cells: answered from the occupied cells instead
+		assertThat(grid.near(LAT, LNG, 100_000, 10)).hasSize(4);
+	}
+
+	@Test
+	void removedListingsAndEmptyCellsLeaveTheGrid() {
+		GeoGrid grid = new GeoGrid(250);
+		grid.put(listing(1L, LAT, LNG));
+		grid.put(listing(2L, LAT + 0.0001, LNG + 0.0001));
+		grid.put(listing(3L, LAT + 0.05, LNG + 0.05));
+
+		grid.remove(1L);
+		grid.remove(3L);
+		grid.remove(3L);
+
+		assertThat(grid.near(LAT, LNG, 10_000, 10)).extracting(hit -> hit.listing().getId()).containsExactly(2L);
+		assertThat(grid.occupiedCells()).isEqualTo(1);
+	}
+
+	@Test
+	void withinKeepsOnlyTheBoxAndSortsFromItsCentre() {
+		GeoGrid grid = new GeoGrid(250);
+		grid.put(listing(1L, LAT, LNG));
+		grid.put(listing(2L, LAT + 0.003, LNG + 0.003));
+		grid.put(listing(3L, LAT + 0.009, LNG));
+
+		List<GeoGrid.Hit> hits = grid.within(LAT - 0.001, LNG - 0.001, LAT + 0.005, LNG + 0.005, 10);
+
+		assertThat(hits).extracting(hit -> hit.listing().getId()).containsExactly(2L, 1L);
+	}
+
+	private static FoodListing listing(Long id, Double latitude, Double longitude) {
+		FoodListing listing = new FoodListing();
+		listing.setId(id);
+		listing.setLatitude(latitude);
+		listing.setLongitude(longitude);
+		return listing;
+	}
+}
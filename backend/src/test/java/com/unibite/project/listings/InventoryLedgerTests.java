@@ -0,0 +1,103 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.common.CollectionVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryLedgerTests {
+
+	private final FoodListingRepository listingRepo = mock(FoodListingRepository.class);
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final InventoryLedger ledger = new InventoryLedger(listingRepo, jdbcTemplate, new CollectionVersions());
+
+	@Test
+	void concurrentClaimersNeverOversell() throws Exception {
+		when(listingRepo.findById(1L)).thenReturn(Optional.of(listing(1L, 100, 2)));
+
+		int claimers = 500;
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<InventoryLedger.Reservation>> results = new ArrayList<>();
+		for (int i = 0; i < claimers; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return ledger.reserve(1L, 1);
+			}));
+		}
+		start.countDown();
+
+		int reserved = 0;
+		for (Future<InventoryLedger.Reservation> result : results) {
+			if (result.get(10, TimeUnit.SECONDS).isReserved()) reserved++;
+		}
+		pool.shutdown();
+
+		assertThat(reserved).isEqualTo(100);
+		assertThat(ledger.reserve(1L, 1).outcome()).isEqualTo(InventoryLedger.Outcome.SOLD_OUT);
+	}
+
+	@Test
+	void rejectsInTheSameOrderAsTheListingRules() {
+		ledger.track(listing(2L, 3, 2));
+
+		assertThat(ledger.reserve(2L, 3).outcome()).isEqualTo(InventoryLedger.Outcome.OVER_LIMIT);
+		assertThat(ledger.reserve(2L, 2).remaining()).isEqualTo(1);
+		assertThat(ledger.reserve(2L, 2).outcome()).isEqualTo(InventoryLedger.Outcome.INSUFFICIENT);
+		assertThat(ledger.reserve(3L, 1).outcome()).isEqualTo(InventoryLedger.Outcome.NOT_FOUND);
+	}
+
+	@Test
+	void releaseRestoresAndFlushWritesBehind() {
+		ledger.track(listing(4L, 5, 5));
+		ledger.flush();
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+		ledger.reserve(4L, 5);
+		assertThat(ledger.release(4L, 2)).isEqualTo(2);
+		ledger.flush();
+
+		verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+		assertThat(ledger.overlay(listing(4L, 5, 5)).getRemainingQuantity()).isEqualTo(2);
+	}
+
+	@Test
+	void retiredStocksLeaveOnceFlushedAndReloadFromTheRow() {
+		ledger.track(listing(5L, 4, 4));
+		ledger.reserve(5L, 3);
+		ledger.retire(5L);
+		assertThat(ledger.overlay(listing(5L, 4, 4)).getRemainingQuantity()).isEqualTo(1);
+
+		// Flushed and evicted in one pass; the row now holds the count
+		ledger.flush();
+		assertThat(ledger.overlay(listing(5L, 4, 4)).getRemainingQuantity()).isEqualTo(4);
+
+		when(listingRepo.findById(5L)).thenReturn(Optional.of(listing(5L, 1, 4)));
+		assertThat(ledger.release(5L, 3)).isEqualTo(4);
+	}
+
+	private FoodListing listing(Long id, int remaining, int perPersonLimit) {
+		FoodListing listing = new FoodListing();
+		ReflectionTestUtils.setField(listing, "id", id);
+		listing.setRemainingQuantity(remaining);
+		listing.setPerPersonLimit(perPersonLimit);
+		return listing;
+	}
+}
@@ -0,0 +1,57 @@
+package com.unibite.project.listings;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ListingEventBroadcasterTests {
+
+	private final ListingEventBroadcaster broadcaster = new ListingEventBroadcaster(64, 64, Duration.ofMinutes(1),
+			Duration.ofSeconds(10));
+
+	@Test
+	void eventsKeepArrivalOrderAndQuantityRunsCoalesceInPlace() {
+		broadcaster.quantityChanged(1L, 1);
+		broadcaster.quantityChanged(2L, 7);
+		broadcaster.quantityChanged(1L, 0);
+		broadcaster.soldOut(1L);
+		// A cancel restocks within the same tick
+		broadcaster.quantityChanged(1L, 1);
+		broadcaster.quantityChanged(2L, 6);
+		broadcaster.quantityChanged(1L, 2);
+		broadcaster.expired(3L);
+		broadcaster.dispatch();
+
+		List<ListingEvent> events = broadcaster.recent();
+		assertThat(events).extracting(ListingEvent::type, ListingEvent::listingId, ListingEvent::remainingQuantity)
+				.containsExactly(
+						tuple(ListingEvent.Type.QUANTITY_CHANGED, 1L, 0),
+						tuple(ListingEvent.Type.QUANTITY_CHANGED, 2L, 6),
+						tuple(ListingEvent.Type.SOLD_OUT, 1L, 0),
+						tuple(ListingEvent.Type.QUANTITY_CHANGED, 1L, 2),
+						tuple(ListingEvent.Type.EXPIRED, 3L, null));
+		assertThat(events).extracting(ListingEvent::id).isSorted().doesNotHaveDuplicates();
+
+		broadcaster.dispatch();
+		assertThat(broadcaster.recent()).hasSize(5);
+	}
+
+	@Test
+	void idsAfterARestartStayAboveEveryIdHandedOutBefore() throws InterruptedException {
+		broadcaster.expired(1L);
+		broadcaster.dispatch();
+		long before = broadcaster.recent().getLast().id();
+
+		Thread.sleep(2);
+		ListingEventBroadcaster restarted = new ListingEventBroadcaster(64, 64, Duration.ofMinutes(1),
+				Duration.ofSeconds(10));
+		restarted.expired(1L);
+		restarted.dispatch();
+
+		assertThat(restarted.recent().getFirst().id()).isGreaterThan(before);
+	}
+}
@@ -0,0 +1,86 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.TestData;
+import com.unibite.project.listings.dto.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:sqlite:target/listing-importer-tests.db",
+		"unibite.listings.import.batch-size=2"
+})
+class ListingImporterTests {
+
+	@Autowired
+	private ListingImporter importer;
+
+	@Autowired
+	private FoodListingService listingService;
+
+	@Autowired
+	private FoodListingRepository listingRepo;
+
+	@Autowired
+	private InventoryLedger inventory;
+
+	@Test
+	void csvRowsAreValidatedAndInsertedInBatches() {
+		Long before = listingService.create(TestData.listing(7L, "Before", 1, 1)).getId();
+		ImportResult result = importer.importCsv(body("""
+				restaurantId,title,totalQuantity,perPersonLimit,pickupLocation
+				7,"Soup, lentil",12,2,Hall A
+				7,,5,1,Hall A
+				7,Bagels,ten,1,
+				7,Salad,4,1,"Hall ""B""\"
+				7,Wraps,3,1,Hall C
+				"""));
+
+		assertThat(result.imported).isEqualTo(3);
+		assertThat(result.rejected).isEqualTo(2);
+		assertThat(result.rows).extracting(row -> row.error)
+				.containsExactly(null, "title is required", "totalQuantity must be a number", null, null);
+
+		Long soupId = result.rows.get(0).id;
+		assertThat(soupId).isGreaterThan(before);
+		FoodListing soup = listingRepo.findById(soupId).orElseThrow();
+		assertThat(soup.getTitle()).isEqualTo("Soup, lentil");
+		assertThat(soup.getRemainingQuantity()).isEqualTo(12);
+		assertThat(listingRepo.findById(result.rows.get(3).id).orElseThrow().getPickupLocation()).isEqualTo("Hall \"B\"");
+		assertThat(inventory.remaining(soupId)).isEqualTo(12);
+		assertThat(listingService.getActive()).extracting(FoodListing::getId).contains(soupId);
+
+		// IDENTITY inserts carry on after the explicitly numbered rows
+		assertThat(listingService.create(TestData.listing(7L, "After", 1, 1)).getId()).isGreaterThan(result.rows.get(4).id);
+	}
+
+	@Test
+	void jsonRowsKeepTheirPositionAndStopAtMalformedInput() {
+		ImportResult result = importer.importJson(body("""
+				[{"restaurantId": 3, "title": "Pasta", "totalQuantity": 6, "perPersonLimit": 1},
+				 "pasta",
+				 {"restaurantId": 3, "title": "Rice", "totalQuantity": "many", "perPersonLimit": 1},
+				 {"restaurantId": 3, "title": "Curry", "totalQuantity": 0, "perPersonLimit": 1},
+				 {"restaurantId": 3, "title": "Naan", "totalQuantity": 2, "perPersonLimit": 1},
+				 {"restaurantId": 3, "title": "Broken"
+				"""));
+
+		assertThat(result.imported).isEqualTo(2);
+		assertThat(result.rows).extracting(row -> row.row).containsExactly(1, 2, 3, 4, 5, 6);
+		assertThat(result.rows).filteredOn(row -> row.id != null).extracting(row -> row.row).containsExactly(1, 5);
+		assertThat(result.rows.get(1).error).isEqualTo("Expected a listing object");
+		assertThat(result.rows.get(2).error).startsWith("Unreadable listing");
+		assertThat(result.rows.get(3).error).isEqualTo("totalQuantity must be > 0");
+		assertThat(result.rows.get(5).error).startsWith("Malformed JSON");
+	}
+
+	private static InputStream body(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
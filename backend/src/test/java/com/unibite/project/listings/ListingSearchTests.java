@@ -0,0 +1,56 @@
+package com.unibite.project.listings;
+
+import com.unibite.project.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:target/listing-search-tests.db")
+@Import(TestData.class)
+class ListingSearchTests {
+
+	@Autowired
+	private ListingSearch search;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void rankedPrefixSearchSkipsListingsThatCanNoLongerBeClaimed() {
+		String tag = "z" + Long.toString(System.nanoTime(), 36);
+		Long inTitle = create("Vegan curry " + tag, "Chickpeas", "Engineering atrium", 5);
+		Long inDescription = create("Lunch bowl " + tag, "Vegan and gluten free", "Science library", 5);
+		Long soldOut = create("Vegan wraps " + tag, null, "Science library", 1);
+		testData.claim(soldOut, 1L);
+
+		assertThat(search.search("vegan " + tag, true, null)).extracting(FoodListing::getId)
+				.containsExactly(inTitle, inDescription);
+		assertThat(search.search("VEG " + tag, false, null)).extracting(FoodListing::getId)
+				.containsExactlyInAnyOrder(inTitle, inDescription, soldOut);
+
+		// Prefixes on any column; no listing has every word, so any word counts
+		assertThat(search.search(tag.substring(0, tag.length() - 1) + " libr", true, null)).extracting(FoodListing::getId)
+				.startsWith(inDescription);
+		assertThat(search.search("bowl near library " + tag, true, null)).extracting(FoodListing::getId)
+				.first().isEqualTo(inDescription);
+	}
+
+	@Test
+	void userTextNeverReachesFtsSyntax() {
+		assertThat(ListingSearch.terms("pizza NEAR \"library\" OR col:* -x")).containsExactly(
+				"\"pizza\"*", "\"near\"*", "\"library\"*", "\"or\"*", "\"col\"*", "\"x\"*");
+		assertThat(search.search("\") OR (\"", true, null)).isNotNull();
+		assertThatThrownBy(() -> search.search("  ** ", true, null)).hasMessage("Search text is required");
+	}
+
+	private Long create(String title, String description, String pickupLocation, int quantity) {
+		FoodListing listing = TestData.listing(1L, title, quantity, 1);
+		listing.setDescription(description);
+		listing.setPickupLocation(pickupLocation);
+		return testData.create(listing);
+	}
+}
@@ -4,12 +4,16 @@ const API_BASE_URL =
 const SESSION_KEY = "unibite_session";
 
 async function apiRequest(path, options = {}) {
+  // Signed-in requests are rate-limited per user rather than per address,
+  // so students behind the same NAT don't share one bucket
+  const token = getSession()?.sessionToken;
   const response = await fetch(`${API_BASE_URL}${path}`, {
+    ...options,
     headers: {
       "Content-Type": "application/json",
+      ...(token ? { "X-Session-Token": token } : {}),
       ...(options.headers || {}),
     },
-    ...options,
   });
 
   const text = await response.text();
@@ -24,6 +28,8 @@ async function apiRequest(path, options = {}) {
   }
 
   if (!response.ok) {
+    // The stored session expired or was logged out elsewhere
+    if (response.status === 401 && token) clearSession();
     throw new Error(
       typeof body === "string" && body
         ? body
@@ -84,14 +90,43 @@ export function getListings() {
   return apiRequest("/api/listings");
 }
 
-export function getUsers() {
-  return apiRequest("/api/users");
+// Live listing changes over SSE. EventSource reconnects on its own and
+// resumes from the last event id it saw.
+export function subscribeListingEvents(onEvent) {
+  const source = new EventSource(`${API_BASE_URL}/api/listings/stream`);
+  for (const type of ["CREATED", "QUANTITY_CHANGED", "SOLD_OUT", "EXPIRED", "RESET"]) {
+    source.addEventListener(type, (e) =>
+      onEvent(type, type === "RESET" ? null : JSON.parse(e.data)),
+    );
+  }
+  return () => source.close();
+}
+
+// Claimable listings within radius metres, nearest first: [{ listing, distanceMeters }]
+export function getNearbyListings(lat, lng, radius = 500) {
+  return apiRequest(`/api/listings/near?lat=${lat}&lng=${lng}&radius=${radius}`);
+}
+
+// The signed-in user's own account, including their QR token
+export function getMe() {
+  return apiRequest("/api/users/me");
+}
+
+// Compact id -> { role, displayName } directory; revalidated via ETag.
+export function getUserDirectory(ids) {
+  const query = ids?.length ? `?ids=${ids.join(",")}` : "";
+  return apiRequest(`/api/users/directory${query}`);
 }
 
 export function getListingsByRestaurant(restaurantId) {
   return apiRequest(`/api/listings/restaurant/${restaurantId}`);
 }
 
+// Listings with their claims and per-status counts in a single request.
+export function getRestaurantDashboard(restaurantId) {
+  return apiRequest(`/api/restaurants/${restaurantId}/dashboard`);
+}
+
 export function createListing(payload) {
   return apiRequest("/api/listings", {
     method: "POST",
@@ -99,11 +134,23 @@ export function createListing(payload) {
   });
 }
 
-export function createClaim(payload) {
-  return apiRequest("/api/claims", {
-    method: "POST",
-    body: JSON.stringify(payload),
-  });
+export async function createClaim(payload) {
+  // Same key on every attempt, so retrying after a dropped response can't claim twice
+  const idempotencyKey = crypto.randomUUID();
+  const send = () =>
+    apiRequest("/api/claims", {
+      method: "POST",
+      headers: { "Idempotency-Key": idempotencyKey },
+      body: JSON.stringify(payload),
+    });
+
+  try {
+    return await send();
+  } catch (err) {
+    // fetch rejects with TypeError only when the request never got a response
+    if (!(err instanceof TypeError)) throw err;
+    return send();
+  }
 }
 
 export function getClaimsByStudent(studentId) {
@@ -3,9 +3,8 @@ import { useEffect, useMemo, useState } from "react";
 import {
   clearSession,
   createListing,
-  getClaimsByListing,
-  getListingsByRestaurant,
-  getUsers,
+  getRestaurantDashboard,
+  getUserDirectory,
   getSession,
   logout,
   redeemByToken,
@@ -39,32 +38,17 @@ export default function RestaurantDashboard() {
     setError("");
 
     try {
-      const [listingRows, users] = await Promise.all([
-        getListingsByRestaurant(session.userId),
-        getUsers(),
+      const [dashboard, users] = await Promise.all([
+        getRestaurantDashboard(session.userId),
+        getUserDirectory(),
       ]);
 
-      const claimGroups = await Promise.all(
-        listingRows.map(async (listing) => {
-          try {
-            const rows = await getClaimsByListing(listing.id);
-            return rows;
-          } catch {
-            return [];
-          }
-        }),
+      const listingRows = dashboard.listings.map((row) => row.listing);
+      const flatClaims = dashboard.listings.flatMap((row) => row.claims);
+      const claimsByListing = new Map(
+        dashboard.listings.map((row) => [row.listing.id, row.claims.length]),
       );
 
-      const flatClaims = claimGroups.flat();
-      const claimsByListing = new Map();
-
-      for (const claim of flatClaims) {
-        claimsByListing.set(
-          claim.listingId,
-          (claimsByListing.get(claim.listingId) || 0) + 1,
-        );
-      }
-
       setPostings(
         listingRows.map((listing) => ({
           id: listing.id,
@@ -82,7 +66,7 @@ export default function RestaurantDashboard() {
 
       setClaims(flatClaims);
       setUserNameById(
-        new Map(users.map((u) => [u.id, u.displayName || u.email || `User ${u.id}`])),
+        new Map(users.map((u) => [u.id, u.displayName || `User ${u.id}`])),
       );
     } catch (err) {
       setError(err.message || "Failed to load restaurant dashboard");
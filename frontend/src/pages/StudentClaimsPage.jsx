@@ -4,7 +4,7 @@ import {
   clearSession,
   getClaimsByStudent,
   getListings,
-  getUsers,
+  getUserDirectory,
   getSession,
   logout,
 } from "../lib/api";
@@ -32,11 +32,11 @@ export default function StudentClaimsPage() {
       const [claimRows, listings, users] = await Promise.all([
         getClaimsByStudent(session.userId),
         getListings(),
-        getUsers(),
+        getUserDirectory(),
       ]);
 
       const userNameById = new Map(
-        users.map((u) => [u.id, u.displayName || u.email || `User ${u.id}`]),
+        users.map((u) => [u.id, u.displayName || `User ${u.id}`]),
       );
       const listingById = new Map(listings.map((x) => [x.id, x]));
 
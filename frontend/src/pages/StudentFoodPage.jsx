@@ -1,9 +1,10 @@
-import { useEffect, useMemo, useState } from "react";
+import { useEffect, useMemo, useRef, useState } from "react";
 import {
   clearSession,
   createClaim,
   getListings,
-  getUsers,
+  getUserDirectory,
+  subscribeListingEvents,
   getSession,
   logout,
 } from "../lib/api";
@@ -18,36 +19,20 @@ export default function StudentBrowseFoodPage() {
   const [items, setItems] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState("");
+  const userNameById = useRef(new Map());
 
   async function loadListings() {
     setLoading(true);
     setError("");
 
     try {
-      const [data, users] = await Promise.all([getListings(), getUsers()]);
-      const userNameById = new Map(
-        users.map((u) => [u.id, u.displayName || u.email || `User ${u.id}`]),
+      const [data, users] = await Promise.all([getListings(), getUserDirectory()]);
+      userNameById.current = new Map(
+        users.map((u) => [u.id, u.displayName || `User ${u.id}`]),
+      );
+      const mappedItems = data.map((listing) =>
+        toItem(listing, userNameById.current),
       );
-      const mappedItems = data.map((listing) => {
-        const status = computeStatus(listing);
-
-        return {
-          id: listing.id,
-          title: listing.title,
-          description: listing.description || "No description",
-          restaurant:
-            userNameById.get(listing.restaurantId) ||
-            `Restaurant ${listing.restaurantId}`,
-          restaurantId: listing.restaurantId,
-          remaining: `${listing.remainingQuantity} / ${listing.totalQuantity}`,
-          remainingQty: listing.remainingQuantity,
-          perPersonLimit: listing.perPersonLimit,
-          availableUntil: formatTime(listing.availableUntil),
-          availableUntilRaw: listing.availableUntil,
-          location: listing.pickupLocation || "Campus pickup",
-          status,
-        };
-      });
 
       setItems(dedupeItemsByRestaurantAndTitle(mappedItems));
     } catch (err) {
@@ -61,6 +46,65 @@ export default function StudentBrowseFoodPage() {
     loadListings();
   }, []);
 
+  // A new restaurant's name, looked up once by id rather than reloading everything
+  async function addListing(listing) {
+    if (!userNameById.current.has(listing.restaurantId)) {
+      try {
+        const [entry] = await getUserDirectory([listing.restaurantId]);
+        if (entry) {
+          userNameById.current.set(entry.id, entry.displayName || `User ${entry.id}`);
+        }
+      } catch {
+        // Fall back to "Restaurant <id>".
+      }
+    }
+    const item = toItem(listing, userNameById.current);
+    setItems((prev) =>
+      prev.some((x) => x.id === item.id)
+        ? prev
+        : dedupeItemsByRestaurantAndTitle([item, ...prev]),
+    );
+  }
+
+  // Events are applied locally; only a RESET (missed events) reloads the list
+  useEffect(() => {
+    return subscribeListingEvents((type, event) => {
+      if (type === "RESET") {
+        loadListings();
+        return;
+      }
+      if (type === "CREATED") {
+        addListing(event.listing);
+        return;
+      }
+      if (type === "EXPIRED") {
+        setItems((prev) =>
+          prev.map((item) =>
+            item.id === event.listingId ? { ...item, status: "Expired" } : item,
+          ),
+        );
+        return;
+      }
+
+      setItems((prev) =>
+        prev.map((item) => {
+          if (item.id !== event.listingId) return item;
+          const listing = {
+            availableUntil: item.availableUntilRaw,
+            remainingQuantity: event.remainingQuantity,
+            totalQuantity: item.totalQty,
+          };
+          return {
+            ...item,
+            remaining: `${event.remainingQuantity} / ${item.totalQty}`,
+            remainingQty: event.remainingQuantity,
+            status: computeStatus(listing),
+          };
+        }),
+      );
+    });
+  }, []);
+
   const restaurants = useMemo(() => {
     const set = new Set(items.map((x) => x.restaurant));
     return ["All Restaurants", ...Array.from(set)];
@@ -312,6 +356,26 @@ function pillClass(status) {
   return "pillGray";
 }
 
+function toItem(listing, userNameById) {
+  return {
+    id: listing.id,
+    title: listing.title,
+    description: listing.description || "No description",
+    restaurant:
+      userNameById.get(listing.restaurantId) ||
+      `Restaurant ${listing.restaurantId}`,
+    restaurantId: listing.restaurantId,
+    remaining: `${listing.remainingQuantity} / ${listing.totalQuantity}`,
+    remainingQty: listing.remainingQuantity,
+    totalQty: listing.totalQuantity,
+    perPersonLimit: listing.perPersonLimit,
+    availableUntil: formatTime(listing.availableUntil),
+    availableUntilRaw: listing.availableUntil,
+    location: listing.pickupLocation || "Campus pickup",
+    status: computeStatus(listing),
+  };
+}
+
 function computeStatus(listing) {
   const isExpired = listing.availableUntil
     ? Date.parse(listing.availableUntil) < Date.now()
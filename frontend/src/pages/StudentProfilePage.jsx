@@ -1,6 +1,6 @@
 import { QRCodeCanvas } from "qrcode.react";
 import { useEffect, useState } from "react";
-import { clearSession, getSession, getUsers, logout } from "../lib/api";
+import { clearSession, getMe, getSession, logout } from "../lib/api";
 import "./StudentProfilePage.css";
 
 export default function StudentProfilePage() {
@@ -11,17 +11,17 @@ export default function StudentProfilePage() {
 
   useEffect(() => {
     async function loadQrToken() {
-      if (qrToken || !session?.userId) return;
+      // Normally already in the session from login
+      if (qrToken || !session?.sessionToken) return;
       try {
-        const users = await getUsers();
-        const me = users.find((u) => u.id === session.userId);
+        const me = await getMe();
         if (me?.qrToken) setQrToken(me.qrToken);
       } catch {
         // Leave QR empty if lookup fails.
       }
     }
     loadQrToken();
-  }, [qrToken, session?.userId]);
+  }, [qrToken, session?.sessionToken]);
 
   function handleSave(e) {
     e.preventDefault();